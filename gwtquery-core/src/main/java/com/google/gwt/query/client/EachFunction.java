@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.query.client;
+
+import com.google.gwt.dom.client.Element;
+
+/**
+ * A stateless callback used by GQuery methods which loop over matched elements.
+ *
+ * Unlike {@link Function} it is invoked directly, without setting any element, index or
+ * arguments state before each call, so it is reentrant and can be written as a lambda.
+ * <pre>
+ *   $(".cell").each((e, i) -> e.setTitle("cell " + i));
+ * </pre>
+ */
+public interface EachFunction {
+
+  /**
+   * Called for each matched element.
+   *
+   * @param e the element for this call
+   * @param index the element position in the gquery elements array
+   */
+  void f(Element e, int index);
+}
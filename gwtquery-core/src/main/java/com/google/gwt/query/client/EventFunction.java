@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.query.client;
+
+import com.google.gwt.user.client.Event;
+
+/**
+ * A stateless event handler, the lambda-friendly counterpart of {@link Function#f(Event)}.
+ *
+ * It is invoked directly from the dispatch loop without setting any event, element or
+ * arguments state, the element handling the event is available in
+ * <code>event.getCurrentEventTarget()</code>.
+ * <pre>
+ *   $(".cell").bind("click", e -> {
+ *     select(e.getCurrentEventTarget());
+ *     return true;
+ *   });
+ * </pre>
+ */
+public interface EventFunction {
+
+  /**
+   * Handle the event.
+   *
+   * @return false to stop propagation and prevent the default action
+   */
+  boolean f(Event event);
+}
@@ -110,6 +110,13 @@ public abstract class Function {
     return getArguments();
   }
 
+  /**
+   * Return the arguments passed to the function.
+   *
+   * Event handlers receive the data bound with them or attached to the event, and the array is
+   * shared by all the times the handler is executed, so it must not be modified. Copy it if you
+   * need to change it or to keep it.
+   */
   public Object[] getArguments() {
     return arguments;
   }
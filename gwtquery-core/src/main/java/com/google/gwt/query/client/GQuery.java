@@ -53,6 +53,7 @@ import com.google.gwt.query.client.plugins.Widgets;
 import com.google.gwt.query.client.plugins.ajax.Ajax;
 import com.google.gwt.query.client.plugins.ajax.Ajax.Settings;
 import com.google.gwt.query.client.plugins.deferred.Deferred;
+import com.google.gwt.query.client.plugins.deferred.PromiseChunked;
 import com.google.gwt.query.client.plugins.deferred.PromiseFunction;
 import com.google.gwt.query.client.plugins.effects.PropertiesAnimation.Easing;
 import com.google.gwt.query.client.plugins.events.EventsListener;
@@ -139,9 +140,18 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
 
   /**
    * Object to store element data (public so as we can access to it from tests).
+   *
+   * It is only used in browsers without WeakMap support, otherwise data is stored in
+   * {@link #weakDataCache} so as it is garbage-collected with the element.
    */
   public static JsCache dataCache = null;
 
+  /**
+   * A native WeakMap used to store element data keyed by the element itself, or null if the
+   * browser does not support it.
+   */
+  private static final JavaScriptObject weakDataCache = GWT.isClient() ? createWeakMap() : null;
+
   /**
    * The document element in the current page.
    */
@@ -483,7 +493,11 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
   /**
    * Store arbitrary data associated with the specified element.
    *
-   * We store this data in a global js object having the structure:
+   * We store this data in a native WeakMap having the structure:
+   *  weakDataCache [element] [key] = value
+   *
+   * so as it does not leak when elements are removed without cleaning their data. In old browsers
+   * we fallback to a global js object having the structure:
    *  datacache [element.hashCode()] [key] = value
    *
    * @return the value stored in the element with the given name
@@ -492,27 +506,131 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     return data(element, key, value, null);
   }
 
+  /**
+   * Get the boolean stored in the element data with the given key, or false if it does not exist.
+   *
+   * Unlike {@link #data(Element, String)} the value is not boxed.
+   */
+  public static boolean dataBoolean(Element element, String key) {
+    JsCache cache = element != null && key != null ? elementData(element, false) : null;
+    return cache != null && cache.isTrue(key);
+  }
+
+  /**
+   * Store an unboxed boolean in the element data with the given key.
+   */
+  public static boolean dataBoolean(Element element, String key, boolean value) {
+    if (element != null && key != null) {
+      elementData(element, true).putBoolean(key, value);
+    }
+    return value;
+  }
+
+  /**
+   * Get the number stored in the element data with the given key, or 0 if it does not exist.
+   *
+   * Unlike {@link #data(Element, String)} the value is not boxed, so it is the preferred way
+   * to read counters or positions which are accessed very often, like in each animation frame.
+   */
+  public static double dataDouble(Element element, String key) {
+    JsCache cache = element != null && key != null ? elementData(element, false) : null;
+    return cache != null ? cache.getNumber(key) : 0;
+  }
+
+  /**
+   * Store an unboxed number in the element data with the given key.
+   */
+  public static double dataDouble(Element element, String key, double value) {
+    if (element != null && key != null) {
+      elementData(element, true).putNumber(key, value);
+    }
+    return value;
+  }
+
+  /**
+   * Get the integer stored in the element data with the given key, or 0 if it does not exist.
+   *
+   * Unlike {@link #data(Element, String)} the value is not boxed.
+   */
+  public static int dataInt(Element element, String key) {
+    return (int) dataDouble(element, key);
+  }
+
+  /**
+   * Store an unboxed integer in the element data with the given key.
+   */
+  public static int dataInt(Element element, String key, int value) {
+    dataDouble(element, key, value);
+    return value;
+  }
+
   private static <T> T data(Element element, String key, T value, Class<? extends T> clz) {
+    if (element != null && key != null) {
+      if (value == null) {
+        JsCache cache = elementData(element, false);
+        return cache != null ? cache.get(key, clz) : null;
+      }
+      elementData(element, true).put(key, value);
+    }
+    return value;
+  }
+
+  /**
+   * Return whether the element has any data associated with it.
+   */
+  public static boolean hasData(Element element) {
+    JsCache cache = element != null ? elementData(element, false) : null;
+    return cache != null && !cache.isEmpty();
+  }
+
+  /**
+   * Return the object where the data of the element is stored, creating it if it does not exist
+   * and <code>create</code> is true.
+   */
+  static JsCache elementData(Element element, boolean create) {
     if (dataCache == null) {
       windowData = JavaScriptObject.createObject().cast();
       dataCache = JavaScriptObject.createObject().cast();
     }
     element = element == window || element.getNodeName() == null ? windowData : element;
-    if (element != null && key != null) {
-      int id = element.hashCode();
-
-      if (value == null) {
-        return dataCache.exists(id) ? dataCache.getCache(id).get(key, clz) : null;
+    JsCache cache;
+    if (weakDataCache != null) {
+      cache = weakGet(weakDataCache, element);
+      if (cache == null && create) {
+        cache = JsCache.create();
+        weakSet(weakDataCache, element, cache);
       }
-
-      if (!dataCache.exists(id)) {
-        dataCache.put(id, JsCache.createObject().cast());
+    } else {
+      int id = element.hashCode();
+      cache = dataCache.exists(id) ? dataCache.getCache(id) : null;
+      if (cache == null && create) {
+        cache = JsCache.create();
+        dataCache.put(id, cache);
       }
-      dataCache.getCache(id).put(key, value);
     }
-    return value;
+    return cache;
   }
 
+  static boolean hasWeakDataCache() {
+    return weakDataCache != null;
+  }
+
+  private static native JavaScriptObject createWeakMap() /*-{
+    return typeof $wnd.WeakMap == 'function' ? new $wnd.WeakMap() : null;
+  }-*/;
+
+  private static native JsCache weakGet(JavaScriptObject map, Element key) /*-{
+    return map.get(key) || null;
+  }-*/;
+
+  private static native void weakSet(JavaScriptObject map, Element key, JsCache value) /*-{
+    map.set(key, value);
+  }-*/;
+
+  private static native void weakDelete(JavaScriptObject map, Element key) /*-{
+    map['delete'](key);
+  }-*/;
+
   /**
    * Execute a function around each object.
    */
@@ -770,6 +888,13 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
 
   private GQuery previousObject;
 
+  /**
+   * Plugin views created by as(), cached so as they are reused in chains and loops. The first
+   * one is kept in a field, so as converting a new GQuery once does not allocate a map.
+   */
+  private GQuery pluginView;
+  private JsMap<Class<? extends GQuery>, GQuery> pluginViews;
+
   private GQuery() {
   }
 
@@ -870,29 +995,57 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
 
   private void allNextSiblingElements(Element firstChildElement, JsNodeArray result, Element elem,
       GQuery until, String filterSelector) {
+    allNextSiblingElements(firstChildElement, result, elem, until, filterSelector, null);
+  }
 
-    while (firstChildElement != null) {
+  /**
+   * Collect the next siblings of an element testing each one with a compiled matcher.
+   *
+   * When a <code>visited</code> cache is given, the walk stops as soon as it reaches a node
+   * already visited by a previous walk, since all the following siblings have been already
+   * collected.
+   */
+  private void allNextSiblingElements(Element firstChildElement, JsNodeArray result, Element elem,
+      GQuery until, String filterSelector, JsCache visited) {
+    Predicate matcher = filterSelector == null ? null : getSelectorEngine().matcher(filterSelector);
+    JsCache stop = until == null ? null : idCache(until);
 
-      if (until != null && until.index(firstChildElement) != -1) {
+    while (firstChildElement != null) {
+      int id = firstChildElement.hashCode();
+      if (stop != null && stop.exists(id)) {
         return;
       }
+      if (visited != null) {
+        if (visited.exists(id)) {
+          return;
+        }
+        visited.putBoolean(id, true);
+      }
 
-      if (firstChildElement != elem
-          && (filterSelector == null || $(firstChildElement).is(filterSelector))) {
+      if (firstChildElement != elem && (matcher == null || matcher.f(firstChildElement, 0))) {
         result.addNode(firstChildElement);
       }
       firstChildElement = firstChildElement.getNextSiblingElement();
     }
   }
 
+  /**
+   * Collect the previous siblings of an element testing each one with a compiled matcher.
+   * It stops as soon as it reaches a node already present in the <code>visited</code> cache.
+   */
   private void allPreviousSiblingElements(Element firstChildElement, JsNodeArray result,
-      GQuery until, String filterSelector) {
+      GQuery until, String filterSelector, JsCache visited) {
+    Predicate matcher = filterSelector == null ? null : getSelectorEngine().matcher(filterSelector);
+    JsCache stop = until == null ? null : idCache(until);
+
     while (firstChildElement != null) {
-      if (until != null && until.index(firstChildElement) != -1) {
+      int id = firstChildElement.hashCode();
+      if (stop != null && stop.exists(id) || visited.exists(id)) {
         return;
       }
+      visited.putBoolean(id, true);
 
-      if (filterSelector == null || $(firstChildElement).is(filterSelector)) {
+      if (matcher == null || matcher.f(firstChildElement, 0)) {
         result.addNode(firstChildElement);
       }
 
@@ -1167,6 +1320,10 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
 
   /**
    * Convert to Plugin interface provided by Class literal.
+   *
+   * Views of plugins declaring themselves as reusable (see {@link #isReusableView()}) are
+   * cached in this object, so repeated calls do not allocate new plugin instances while the
+   * matched set is not modified.
    */
   @SuppressWarnings("unchecked")
   public <T extends GQuery> T as(Class<T> plugin) {
@@ -1174,9 +1331,26 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     if (plugin == GQUERY) {
       return (T) this;
     } else if (plugins != null) {
+      GQuery view = pluginView != null && pluginView.getClass() == plugin ? pluginView
+          : pluginViews == null ? null : pluginViews.get(plugin);
+      // Discard the view if its matched set has been modified
+      if (view != null && view.elements == elements) {
+        return (T) view;
+      }
       Plugin<?> p = plugins.get(plugin);
       if (p != null) {
-        return (T) p.init(this);
+        view = p.init(this);
+        if (view.isReusableView()) {
+          if (pluginView == null || pluginView.getClass() == plugin) {
+            pluginView = view;
+          } else {
+            if (pluginViews == null) {
+              pluginViews = JsMap.create();
+            }
+            pluginViews.put(plugin, view);
+          }
+        }
+        return (T) view;
       }
     }
     throw new RuntimeException("No plugin registered for class " + plugin.getName());
@@ -1300,6 +1474,27 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     return as(Events).bind(eventType, null, funcs);
   }
 
+  /**
+   * Binds a stateless handler to a particular Event for each matched element.
+   *
+   * The handler is called directly without setting any event, element or arguments state, so
+   * it can be written as a lambda. To stop both default action and event bubbling, the handler
+   * has to return false.
+   *
+   * It is not an overload of {@link #bind(String, Function...)} or {@link #on(String, Function...)}
+   * so as calls passing a null handler to them are not ambiguous.
+   */
+  public GQuery onEvent(String eventType, EventFunction handler) {
+    return as(Events).onEvent(eventType, handler);
+  }
+
+  /**
+   * Remove a stateless handler previously bound with {@link #onEvent(String, EventFunction)}.
+   */
+  public GQuery offEvent(String eventType, EventFunction handler) {
+    return as(Events).offEvent(eventType, handler);
+  }
+
   /**
    * Bind Handlers or fire Events for each matched element.
    */
@@ -1441,19 +1636,45 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
       context = currentContext;
     }
 
-    GQuery pos = posRegex.test(selector) ? $(selector, context) : null;
+    final GQuery pos = posRegex.test(selector) ? $(selector, context) : null;
+    Predicate matcher = pos == null ? getSelectorEngine().matcher(selector) : new Predicate() {
+      public boolean f(Element e, int index) {
+        return pos.index(e) > -1;
+      }
+    };
+
+    // Ancestors already resolved by a previous element, so as rows sharing the same chain
+    // are resolved in O(N + depth) instead of O(N * depth). The document is used to
+    // mark chains without a matching ancestor, since it can never be returned.
+    JsCache resolved = JsCache.create();
     JsNodeArray result = JsNodeArray.create();
 
     for (Element e : elements) {
+      Node found = null;
       Element current = e;
       while (current != null && current.getOwnerDocument() != null && current != context) {
-        boolean match = pos != null ? pos.index(current) > -1 : $(current).is(selector);
-        if (match) {
-          result.addNode(current);
+        found = resolved.getJavaScriptObject(current.hashCode());
+        if (found != null) {
+          break;
+        }
+        if (matcher.f(current, 0)) {
+          found = current;
           break;
-        } else {
-          current = current.getParentElement();
         }
+        current = current.getParentElement();
+      }
+      if (found == null) {
+        found = document;
+      }
+      for (Element visited = e; visited != null && visited != current; visited = visited
+          .getParentElement()) {
+        resolved.putObject(visited.hashCode(), found);
+      }
+      if (current == found) {
+        resolved.putObject(current.hashCode(), found);
+      }
+      if (found != document) {
+        result.addNode(found);
       }
     }
 
@@ -1723,6 +1944,60 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     return this;
   }
 
+  /**
+   * Return the boolean at the named data store for the first element in the set of matched
+   * elements, or false if it does not exist.
+   */
+  public boolean dataBoolean(String name) {
+    return !isEmpty() && dataBoolean(get(0), name);
+  }
+
+  /**
+   * Store an unboxed boolean associated with the matched elements in the named data store.
+   */
+  public GQuery dataBoolean(String name, boolean value) {
+    for (Element e : elements) {
+      dataBoolean(e, name, value);
+    }
+    return this;
+  }
+
+  /**
+   * Return the number at the named data store for the first element in the set of matched
+   * elements, or 0 if it does not exist.
+   */
+  public double dataDouble(String name) {
+    return isEmpty() ? 0 : dataDouble(get(0), name);
+  }
+
+  /**
+   * Store an unboxed number associated with the matched elements in the named data store.
+   */
+  public GQuery dataDouble(String name, double value) {
+    for (Element e : elements) {
+      dataDouble(e, name, value);
+    }
+    return this;
+  }
+
+  /**
+   * Return the integer at the named data store for the first element in the set of matched
+   * elements, or 0 if it does not exist.
+   */
+  public int dataInt(String name) {
+    return isEmpty() ? 0 : dataInt(get(0), name);
+  }
+
+  /**
+   * Store an unboxed integer associated with the matched elements in the named data store.
+   */
+  public GQuery dataInt(String name, int value) {
+    for (Element e : elements) {
+      dataInt(e, name, value);
+    }
+    return this;
+  }
+
   /**
    * Bind a set of functions to the dblclick event of each matched element. Or trigger the event if
    * no functions are provided.
@@ -2115,6 +2390,44 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     return this;
   }
 
+  /**
+   * Run a stateless function over each element of the GQuery.
+   *
+   * The function is called directly with the element and its index, without setting any state,
+   * so it can be written as a lambda.
+   */
+  public GQuery eachElement(EachFunction f) {
+    if (f != null) {
+      for (int i = 0, l = elements.length; i < l; i++) {
+        f.f(elements[i], i);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Run a Function over each element of the GQuery like {@link #each(Function...)}, but processing
+   * the elements in time-sliced chunks when the browser is idle, so as very large selections do
+   * not block the UI thread.
+   *
+   * The returned promise is notified after each chunk with the number of processed elements and
+   * the total, and it is resolved when all the elements have been processed.
+   */
+  public Promise eachAsync(Function f) {
+    return eachAsync(PromiseChunked.DEFAULT_BUDGET, f);
+  }
+
+  /**
+   * Run a Function over each element of the GQuery like {@link #each(Function...)}, but processing
+   * the elements in time-sliced chunks of at most <code>budget</code> milliseconds.
+   *
+   * The returned promise is notified after each chunk with the number of processed elements and
+   * the total, and it is resolved when all the elements have been processed.
+   */
+  public Promise eachAsync(int budget, Function f) {
+    return new PromiseChunked(elements, budget, f, false);
+  }
+
   /**
    * Returns the working set of nodes as a Java array. <b>Do NOT</b> attempt to modify this array,
    * e.g. assign to its elements, or call Arrays.sort()
@@ -2135,9 +2448,10 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
       } else {
         Node c = e.getFirstChild();
         while (c != null) {
-          removeData(c.<Element> cast(), null);
           WidgetsUtils.detachWidget(getAssociatedWidget(e));
+          // events first, so as the element is dropped from the delegated sets too
           EventsListener.clean(c.<Element> cast());
+          removeData(c.<Element> cast(), null);
           e.removeChild(c);
           c = e.getFirstChild();
         }
@@ -2250,6 +2564,20 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     return pushStack(result, "filter", currentSelector);
   }
 
+  /**
+   * Removes all elements from the set of matched elements for which the stateless function
+   * returns false.
+   */
+  public GQuery filter(FilterFunction filterFn) {
+    JsNodeArray result = JsNodeArray.create();
+    for (int i = 0, l = elements.length; i < l; i++) {
+      if (filterFn.f(elements[i], i)) {
+        result.addNode(elements[i]);
+      }
+    }
+    return pushStack(result, "filter", currentSelector);
+  }
+
   /**
    * Removes all elements from the set of matched elements that do not pass the specified css
    * expression. This method is used to narrow down the results of a search.
@@ -2634,6 +2962,23 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     return !filter(filters).isEmpty();
   }
 
+  /**
+   * Return whether the plugin views of this class can be cached and returned by subsequent
+   * calls to {@link #as(Class)} on the same GQuery object.
+   *
+   * Plugins which only act on the matched set should override it returning true only when
+   * the class of the view is exactly theirs, so as subclasses, which could store state in the
+   * plugin instance, do not inherit it:
+   * <pre>
+   *   protected boolean isReusableView() {
+   *     return getClass() == MyPlugin.class;
+   *   }
+   * </pre>
+   */
+  protected boolean isReusableView() {
+    return false;
+  }
+
   /**
    * Returns true if the number of matched elements is 0.
    */
@@ -2900,6 +3245,57 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     return ret;
   }
 
+  /**
+   * Pass each element in the current matched set through a stateless function, producing a new
+   * array containing the return values. When the call to the function returns a null it is not
+   * added to the array.
+   */
+  public <W> List<W> mapElements(MapFunction<W> f) {
+    ArrayList<W> ret = new ArrayList<>(elements.length);
+    for (int i = 0, l = elements.length; i < l; i++) {
+      W o = f.f(elements[i], i);
+      if (o != null) {
+        ret.add(o);
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Pass each element in the current matched set through a function like {@link #map(Function)},
+   * but processing the elements in time-sliced chunks when the browser is idle.
+   *
+   * The returned promise is notified after each chunk with the number of processed elements and
+   * the total, and it is resolved with the list of the non null values returned by the function.
+   */
+  public Promise mapAsync(Function f) {
+    return mapAsync(PromiseChunked.DEFAULT_BUDGET, f);
+  }
+
+  /**
+   * Pass each element in the current matched set through a function like {@link #map(Function)},
+   * but processing the elements in time-sliced chunks of at most <code>budget</code> milliseconds.
+   *
+   * The returned promise is notified after each chunk with the number of processed elements and
+   * the total, and it is resolved with the list of the non null values returned by the function.
+   */
+  public Promise mapAsync(int budget, Function f) {
+    return new PromiseChunked(elements, budget, f, true);
+  }
+
+  /**
+   * Return a report of the memory held by gQuery for the matched elements and their descendants:
+   * element data, event listeners, delegated handlers and queued functions. Elements holding any
+   * of them while being detached from the document are listed in the report.
+   *
+   * Use <code>$(document).memoryReport()</code> to inspect the whole page, in this case the
+   * elements retained by the handlers of the document and the window, the delegated sets, the
+   * observers and the global data cache which are not in the page are reported too.
+   */
+  public MemoryReport memoryReport() {
+    return new MemoryReport(this);
+  }
+
   /**
    * Bind a set of functions to the mousedown event of each matched element. Or trigger the event if
    * no functions are provided.
@@ -3012,8 +3408,9 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
    */
   public GQuery nextAll(String filter) {
     JsNodeArray result = JsNodeArray.create();
+    JsCache visited = JsCache.create();
     for (Element e : elements) {
-      allNextSiblingElements(e.getNextSiblingElement(), result, null, null, filter);
+      allNextSiblingElements(e.getNextSiblingElement(), result, null, null, filter, visited);
     }
 
     return pushStack(unique(result), "nextAll", getSelector());
@@ -3080,8 +3477,9 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
    */
   public GQuery nextUntil(GQuery until, String filter) {
     JsNodeArray result = JsNodeArray.create();
+    JsCache visited = JsCache.create();
     for (Element e : elements) {
-      allNextSiblingElements(e.getNextSiblingElement(), result, null, until, filter);
+      allNextSiblingElements(e.getNextSiblingElement(), result, null, until, filter, visited);
     }
     return pushStack(unique(result), "nextUntil", getSelector());
   }
@@ -3132,6 +3530,17 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     return e == null ? new Offset(0, 0) : new Offset(e.getAbsoluteLeft(), e.getAbsoluteTop());
   }
 
+  /**
+   * Get the current offsets of all matched elements, in pixels, relative to the document. The
+   * returned array contains two values per element: left and top.
+   *
+   * Unlike calling {@link #offset()} per element, all offsets are read in a single pass so as the
+   * browser computes the layout once.
+   */
+  public double[] offsets() {
+    return getStyleImpl().getVisibleSizes(elements, "left", "top");
+  }
+
   /**
    * Set the current coordinates of every element in the set of matched elements, relative to the document.
    */
@@ -3366,11 +3775,42 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
    * Get a set of elements containing the unique ancestors of the matched set of elements (except
    * for the root element). The matched elements are filtered, returning those that match any of the
    * filters.
+   *
+   * It returns the same elements as <code>parents().filter(filters)</code> in document order, but
+   * ancestors are matched while they are visited, and shared ancestors are only visited once.
    */
   public GQuery parents(String... filters) {
-    return parents().filter(filters);
+    String selector = join(", ", filters);
+    JsNodeArray result = JsNodeArray.create();
+    if (selector.isEmpty()) {
+      return new GQuery(result).setPreviousObject(this);
+    }
+    Predicate matcher = getSelectorEngine().matcher(selector);
+    JsCache visited = JsCache.create();
+    for (Element e : elements) {
+      Node par = e.getParentNode();
+      // Stop at the root element, or when reaching an ancestor already visited
+      while (par != null && par.getNodeType() == Node.ELEMENT_NODE
+          && !"html".equalsIgnoreCase(par.getNodeName()) && !visited.exists(par.hashCode())) {
+        visited.putBoolean(par.hashCode(), true);
+        if (matcher.f(par.<Element> cast(), 0)) {
+          result.addNode(par);
+        }
+        par = par.getParentNode();
+      }
+    }
+    sortInDocumentOrder(result);
+    return new GQuery(result).setPreviousObject(this);
   }
 
+  private static native void sortInDocumentOrder(JsNodeArray nodes) /*-{
+    if (nodes.length > 1 && nodes[0].compareDocumentPosition) {
+      nodes.sort(function(a, b) {
+        return a === b ? 0 : a.compareDocumentPosition(b) & 4 ? -1 : 1;
+      });
+    }
+  }-*/;
+
   /**
    * Get the ancestors of each element in the current set of matched elements, up to but not
    * including the element matched by the selector.
@@ -3414,6 +3854,19 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     return new GQuery(unique(result)).setPreviousObject(this);
   }
 
+  /**
+   * Gets the left and top positions of all matched elements relative to their offset parents, like
+   * {@link #position()} does for the first element. The returned array contains two values per
+   * element: left and top.
+   *
+   * All values, including the offsets and borders of the offset parents, are read in a single
+   * pass so as the browser computes the layout once, and styles are swapped once per hidden
+   * ancestor.
+   */
+  public double[] positions() {
+    return getStyleImpl().getVisibleSizes(elements, "positionLeft", "positionTop");
+  }
+
   /**
    * Gets the top and left position of an element relative to its offset parent. The returned object
    * contains two Integer properties, top and left. For accurate calculations make sure to use pixel
@@ -3561,8 +4014,9 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
    */
   public GQuery prevAll(String selector) {
     JsNodeArray result = JsNodeArray.create();
+    JsCache visited = JsCache.create();
     for (Element e : elements) {
-      allPreviousSiblingElements(getPreviousSiblingElement(e), result, null, selector);
+      allPreviousSiblingElements(getPreviousSiblingElement(e), result, null, selector, visited);
     }
     return pushStack(unique(result), "prevAll", getSelector());
   }
@@ -3623,8 +4077,9 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
    */
   public GQuery prevUntil(GQuery until, String filter) {
     JsNodeArray result = JsNodeArray.create();
+    JsCache visited = JsCache.create();
     for (Element e : elements) {
-      allPreviousSiblingElements(getPreviousSiblingElement(e), result, until, filter);
+      allPreviousSiblingElements(getPreviousSiblingElement(e), result, until, filter, visited);
     }
     return pushStack(unique(result), "prevUntil", getSelector());
   }
@@ -3825,6 +4280,18 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     }.done(fncs);
   }
 
+  /**
+   * Get the geometry of all matched elements in a single array containing four values per element:
+   * left and top relative to the document, and outer width and height including padding and
+   * border.
+   *
+   * All values are read in a single pass after the browser computes the layout once, and hidden
+   * elements are measured swapping styles once per hidden ancestor instead of once per element.
+   */
+  public double[] rects() {
+    return getStyleImpl().getVisibleSizes(elements, "left", "top", "offsetWidth", "offsetHeight");
+  }
+
   /**
    * Removes all matched elements from the DOM.
    */
@@ -3894,23 +4361,24 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
   }
 
   protected void removeData(Element item, String name) {
-    if (dataCache == null) {
-      windowData = JavaScriptObject.createObject().cast();
-      dataCache = JavaScriptObject.createObject().cast();
+    JsCache cache = elementData(item, false);
+    if (cache == null) {
+      return;
     }
-    item = item == window || item.getNodeName() == null ? windowData : item;
-    int id = item.hashCode();
     if (name != null) {
-      if (dataCache.exists(id)) {
-        dataCache.getCache(id).delete(name);
-        if (dataCache.getCache(id).isEmpty()) {
-          // Save memory
-          removeData(item, null);
-        }
+      cache.delete(name);
+      if (cache.isEmpty()) {
+        // Save memory
+        removeData(item, null);
       }
     } else {
       // when the element cache is empty we remove its entry to save memory (issue 132)
-      dataCache.delete(id);
+      item = item == window || item.getNodeName() == null ? windowData : item;
+      if (weakDataCache != null) {
+        weakDelete(weakDataCache, item);
+      } else {
+        dataCache.delete(item.hashCode());
+      }
     }
   }
 
@@ -4205,6 +4673,8 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
    */
   public GQuery setArray(NodeList<Element> list) {
     if (list != null) {
+      pluginView = null;
+      pluginViews = null;
       nodeList.<JsCache> cast().clear();
       int l = list.getLength();
       elements = new Element[l];
@@ -4223,6 +4693,8 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
 
   public GQuery setSelector(String selector) {
     this.currentSelector = selector;
+    pluginView = null;
+    pluginViews = null;
     return this;
   }
 
@@ -4289,6 +4761,21 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     return elements.length;
   }
 
+  /**
+   * Get a set of sizes of all matched elements in a single array, containing one value per name
+   * and element, in the order of the names passed.
+   *
+   * Valid names are 'width' and 'height' (like {@link #width()}), 'clientWidth' and 'clientHeight'
+   * (like {@link #innerWidth()}), 'offsetWidth' and 'offsetHeight' (like {@link #outerWidth()}),
+   * 'left' and 'top' (like {@link #offset()}), or any numeric css property like 'marginTop'.
+   *
+   * All values are read in a single pass after the browser computes the layout once, and hidden
+   * elements are measured swapping styles once per hidden ancestor instead of once per element.
+   */
+  public double[] sizes(String... names) {
+    return getStyleImpl().getVisibleSizes(elements, names);
+  }
+
   /**
    * Selects a subset of the matched elements.
    */
@@ -4633,6 +5120,18 @@ public class GQuery implements Lazy<GQuery, LazyGQuery> {
     return this;
   }
 
+  /**
+   * Return a cache containing the hash codes of all the matched elements in a GQuery object, so
+   * as we can check whether an element belongs to it in constant time.
+   */
+  private static JsCache idCache(GQuery g) {
+    JsCache ret = JsCache.create();
+    for (Element e : g.elements) {
+      ret.putBoolean(e.hashCode(), true);
+    }
+    return ret;
+  }
+
   /**
    * Remove all duplicate elements from an array of elements. Note that this only works on arrays of
    * DOM elements, not strings or numbers.
@@ -401,6 +401,23 @@ public interface LazyGQuery<T> extends LazyBase<T> {
    */
   LazyGQuery<T> bind(String eventType, Function... funcs);
 
+  /**
+   * Binds a stateless handler to a particular Event for each matched element.
+   *
+   * The handler is called directly without setting any event, element or arguments state, so
+   * it can be written as a lambda. To stop both default action and event bubbling, the handler
+   * has to return false.
+   *
+   * It is not an overload of {@link #bind(String, Function...)} or {@link #on(String, Function...)}
+   * so as calls passing a null handler to them are not ambiguous.
+   */
+  LazyGQuery<T> onEvent(String eventType, EventFunction handler);
+
+  /**
+   * Remove a stateless handler previously bound with {@link #onEvent(String, EventFunction)}.
+   */
+  LazyGQuery<T> offEvent(String eventType, EventFunction handler);
+
   /**
    * Bind a set of functions to the blur event of each matched element. Or trigger the blur event if
    * no functions are provided.
@@ -625,6 +642,39 @@ public interface LazyGQuery<T> extends LazyBase<T> {
    */
   LazyGQuery<T> data(String name, Object value);
 
+  /**
+   * Return the boolean at the named data store for the first element in the set of matched
+   * elements, or false if it does not exist.
+   */
+  boolean dataBoolean(String name);
+
+  /**
+   * Store an unboxed boolean associated with the matched elements in the named data store.
+   */
+  LazyGQuery<T> dataBoolean(String name, boolean value);
+
+  /**
+   * Return the number at the named data store for the first element in the set of matched
+   * elements, or 0 if it does not exist.
+   */
+  double dataDouble(String name);
+
+  /**
+   * Store an unboxed number associated with the matched elements in the named data store.
+   */
+  LazyGQuery<T> dataDouble(String name, double value);
+
+  /**
+   * Return the integer at the named data store for the first element in the set of matched
+   * elements, or 0 if it does not exist.
+   */
+  int dataInt(String name);
+
+  /**
+   * Store an unboxed integer associated with the matched elements in the named data store.
+   */
+  LazyGQuery<T> dataInt(String name, int value);
+
   /**
    * Bind a set of functions to the dblclick event of each matched element. Or trigger the event if
    * no functions are provided.
@@ -906,6 +956,33 @@ public interface LazyGQuery<T> extends LazyBase<T> {
    */
   LazyGQuery<T> each(Function... f);
 
+  /**
+   * Run a stateless function over each element of the GQuery.
+   *
+   * The function is called directly with the element and its index, without setting any state,
+   * so it can be written as a lambda.
+   */
+  LazyGQuery<T> eachElement(EachFunction f);
+
+  /**
+   * Run a Function over each element of the GQuery like {@link #each(Function...)}, but processing
+   * the elements in time-sliced chunks when the browser is idle, so as very large selections do
+   * not block the UI thread.
+   *
+   * The returned promise is notified after each chunk with the number of processed elements and
+   * the total, and it is resolved when all the elements have been processed.
+   */
+  Promise eachAsync(Function f);
+
+  /**
+   * Run a Function over each element of the GQuery like {@link #each(Function...)}, but processing
+   * the elements in time-sliced chunks of at most <code>budget</code> milliseconds.
+   *
+   * The returned promise is notified after each chunk with the number of processed elements and
+   * the total, and it is resolved when all the elements have been processed.
+   */
+  Promise eachAsync(int budget, Function f);
+
   /**
    * Returns the working set of nodes as a Java array. <b>Do NOT</b> attempt to modify this array,
    * e.g. assign to its elements, or call Arrays.sort()
@@ -1000,6 +1077,12 @@ public interface LazyGQuery<T> extends LazyBase<T> {
    */
   LazyGQuery<T> filter(Predicate filterFn);
 
+  /**
+   * Removes all elements from the set of matched elements for which the stateless function
+   * returns false.
+   */
+  LazyGQuery<T> filter(FilterFunction filterFn);
+
   /**
    * Removes all elements from the set of matched elements that do not pass the specified css
    * expression. This method is used to narrow down the results of a search.
@@ -1438,6 +1521,42 @@ public interface LazyGQuery<T> extends LazyBase<T> {
    */
   <W> List<W> map(Function f);
 
+  /**
+   * Pass each element in the current matched set through a stateless function, producing a new
+   * array containing the return values. When the call to the function returns a null it is not
+   * added to the array.
+   */
+  <W> List<W> mapElements(MapFunction<W> f);
+
+  /**
+   * Pass each element in the current matched set through a function like {@link #map(Function)},
+   * but processing the elements in time-sliced chunks when the browser is idle.
+   *
+   * The returned promise is notified after each chunk with the number of processed elements and
+   * the total, and it is resolved with the list of the non null values returned by the function.
+   */
+  Promise mapAsync(Function f);
+
+  /**
+   * Pass each element in the current matched set through a function like {@link #map(Function)},
+   * but processing the elements in time-sliced chunks of at most <code>budget</code> milliseconds.
+   *
+   * The returned promise is notified after each chunk with the number of processed elements and
+   * the total, and it is resolved with the list of the non null values returned by the function.
+   */
+  Promise mapAsync(int budget, Function f);
+
+  /**
+   * Return a report of the memory held by gQuery for the matched elements and their descendants:
+   * element data, event listeners, delegated handlers and queued functions. Elements holding any
+   * of them while being detached from the document are listed in the report.
+   *
+   * Use <code>$(document).memoryReport()</code> to inspect the whole page, in this case the
+   * elements retained by the handlers of the document and the window, the delegated sets, the
+   * observers and the global data cache which are not in the page are reported too.
+   */
+  MemoryReport memoryReport();
+
   /**
    * Bind a set of functions to the mousedown event of each matched element. Or trigger the event if
    * no functions are provided.
@@ -1590,6 +1709,15 @@ public interface LazyGQuery<T> extends LazyBase<T> {
    */
   Offset offset();
 
+  /**
+   * Get the current offsets of all matched elements, in pixels, relative to the document. The
+   * returned array contains two values per element: left and top.
+   *
+   * Unlike calling {@link #offset()} per element, all offsets are read in a single pass so as the
+   * browser computes the layout once.
+   */
+  double[] offsets();
+
   /**
    * Set the current coordinates of every element in the set of matched elements, relative to the document.
    */
@@ -1725,6 +1853,17 @@ public interface LazyGQuery<T> extends LazyBase<T> {
    */
   Offset position();
 
+  /**
+   * Gets the left and top positions of all matched elements relative to their offset parents, like
+   * {@link #position()} does for the first element. The returned array contains two values per
+   * element: left and top.
+   *
+   * All values, including the offsets and borders of the offset parents, are read in a single
+   * pass so as the browser computes the layout once, and styles are swapped once per hidden
+   * ancestor.
+   */
+  double[] positions();
+
   /**
    * Prepend content to the inside of every matched element. This operation is the best way to
    * insert elements inside, at the beginning, of all matched elements.
@@ -1977,6 +2116,16 @@ public interface LazyGQuery<T> extends LazyBase<T> {
    */
   Promise ready(Function... fncs);
 
+  /**
+   * Get the geometry of all matched elements in a single array containing four values per element:
+   * left and top relative to the document, and outer width and height including padding and
+   * border.
+   *
+   * All values are read in a single pass after the browser computes the layout once, and hidden
+   * elements are measured swapping styles once per hidden ancestor instead of once per element.
+   */
+  double[] rects();
+
   /**
    * Removes all matched elements from the DOM.
    */
@@ -2174,6 +2323,19 @@ public interface LazyGQuery<T> extends LazyBase<T> {
    */
   int size();
 
+  /**
+   * Get a set of sizes of all matched elements in a single array, containing one value per name
+   * and element, in the order of the names passed.
+   *
+   * Valid names are 'width' and 'height' (like {@link #width()}), 'clientWidth' and 'clientHeight'
+   * (like {@link #innerWidth()}), 'offsetWidth' and 'offsetHeight' (like {@link #outerWidth()}),
+   * 'left' and 'top' (like {@link #offset()}), or any numeric css property like 'marginTop'.
+   *
+   * All values are read in a single pass after the browser computes the layout once, and hidden
+   * elements are measured swapping styles once per hidden ancestor instead of once per element.
+   */
+  double[] sizes(String... names);
+
   /**
    * Selects a subset of the matched elements.
    */
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.query.client;
+
+import com.google.gwt.dom.client.Element;
+
+/**
+ * A stateless callback used by GQuery methods which transform each matched element into
+ * a value.
+ * <pre>
+ *   List&lt;String&gt; ids = $("div").map((e, i) -> e.getId());
+ * </pre>
+ *
+ * @param <W> the type of the returned values
+ */
+public interface MapFunction<W> {
+
+  /**
+   * Return the value for the element, or null if it has to be skipped.
+   *
+   * @param e the element for this call
+   * @param index the element position in the gquery elements array
+   */
+  W f(Element e, int index);
+}
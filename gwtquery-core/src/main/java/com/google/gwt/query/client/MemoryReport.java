@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.query.client;
+
+import com.google.gwt.dom.client.Document;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.Node;
+import com.google.gwt.dom.client.NodeList;
+import com.google.gwt.query.client.js.JsCache;
+import com.google.gwt.query.client.js.JsUtils;
+import com.google.gwt.query.client.plugins.events.EventsListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * A snapshot of the memory held by gQuery for a set of DOM subtrees: element data, event
+ * listeners, delegated handlers and queued functions.
+ *
+ * It is useful in soak tests to detect leaks, comparing reports taken along the time or checking
+ * the elements which hold gQuery resources while being detached from the document. When the
+ * whole document is inspected, the report also follows what gQuery retains from the document,
+ * the window and the observers, so as it finds the detached elements even when element data is
+ * stored in a WeakMap. Detached elements not retained by gQuery are not reported, since they are
+ * garbage-collected with their data.
+ * <pre>
+ *   MemoryReport before = $(document).memoryReport();
+ *   ...
+ *   MemoryReport after = $(document).memoryReport();
+ *   assertTrue(after.approxBytes() - before.approxBytes() < threshold);
+ *   assertEquals(0, after.orphanedEntries);
+ * </pre>
+ *
+ * Sizes are rough estimations, the actual memory depends on the browser.
+ */
+public class MemoryReport {
+
+  // Approximate sizes in bytes of each structure
+  private static final int DATA_ENTRY_SIZE = 64;
+  private static final int DATA_VALUE_SIZE = 32;
+  private static final int LISTENER_SIZE = 128;
+  private static final int HANDLER_SIZE = 64;
+  private static final int LIVE_BIND_FUNCTION_SIZE = 96;
+  private static final int QUEUED_FUNCTION_SIZE = 48;
+
+  /**
+   * Number of inspected elements.
+   */
+  public int elements;
+
+  /**
+   * Number of elements having data.
+   */
+  public int dataEntries;
+
+  /**
+   * Number of values stored in element data.
+   */
+  public int dataValues;
+
+  /**
+   * Number of elements with a gQuery events listener.
+   */
+  public int listeners;
+
+  /**
+   * Number of handlers bound to elements.
+   */
+  public int handlers;
+
+  /**
+   * Number of LiveBindFunction maps used for event delegation.
+   */
+  public int liveBindFunctions;
+
+  /**
+   * Number of handlers delegated to descendants.
+   */
+  public int liveHandlers;
+
+  /**
+   * Number of sets of elements whose handlers are delegated with Events.delegated().
+   */
+  public int elementSets;
+
+  /**
+   * Number of elements in the delegated sets.
+   */
+  public int elementSetMembers;
+
+  /**
+   * Number of functions waiting in queues, including the one running.
+   */
+  public int queuedFunctions;
+
+  /**
+   * Number of elements registered in the resize and viewport observers. It is only computed
+   * when inspecting the whole document, in browsers supporting WeakRef.
+   */
+  public int observedElements;
+
+  /**
+   * Number of entries retained by gQuery for elements which are not in the document: entries of
+   * the global data cache in browsers without WeakMap, members of delegated sets, elements
+   * registered in the observers, and elements passed as data to the handlers. It is only computed
+   * when inspecting the whole document.
+   */
+  public int orphanedEntries;
+
+  /**
+   * Elements holding gQuery resources, or retained by gQuery, which are detached from the
+   * document.
+   */
+  public final List<Element> detached = new ArrayList<>();
+
+  // Memberships of the inspected elements in the delegated sets
+  private int memberships;
+  // Detached elements retained by gQuery structures
+  private int detachedReferences;
+  // Elements already added to the detached list, by hashCode
+  private final JsCache detachedIds = JsCache.create();
+
+  MemoryReport(GQuery g) {
+    boolean wholeDocument = false, window = false;
+    for (Element e : g.elements()) {
+      if (e == GQuery.window) {
+        window = true;
+        inspect(e);
+        continue;
+      }
+      if (e.getNodeType() == Node.DOCUMENT_NODE) {
+        wholeDocument = wholeDocument || (Node) e == GQuery.document;
+        // handlers delegated with live() are bound to the document
+        inspect(e);
+        e = e.<Document> cast().getDocumentElement();
+      }
+      if (e != null && e.getNodeType() == Node.ELEMENT_NODE) {
+        inspect(e);
+        NodeList<Element> descendants = e.getElementsByTagName("*");
+        for (int i = 0, l = descendants.getLength(); i < l; i++) {
+          inspect(descendants.getItem(i));
+        }
+      }
+    }
+    if (wholeDocument) {
+      if (!window && (GQuery.hasData(GQuery.window) || EventsListener.hasListener(GQuery.window))) {
+        inspect(GQuery.window);
+      }
+      if (GQuery.dataCache != null && !GQuery.hasWeakDataCache()) {
+        orphanedEntries += Math.max(0, GQuery.dataCache.length() - dataEntries);
+      }
+      // members not found in the document were removed without cleaning them
+      orphanedEntries += Math.max(0, elementSetMembers - memberships);
+      for (Element e : EventsListener.observedElements()) {
+        observedElements++;
+        retained(e);
+      }
+      orphanedEntries += detachedReferences;
+    }
+  }
+
+  private void inspect(Element e) {
+    elements++;
+    boolean holds = false;
+    JsCache data = GQuery.elementData(e, false);
+    if (data != null && !data.isEmpty()) {
+      holds = true;
+      dataEntries++;
+      for (String key : data.keys()) {
+        dataValues++;
+        Object value = data.get(key);
+        if (value instanceof Queue) {
+          queuedFunctions += ((Queue<?>) value).size();
+        }
+      }
+    }
+    // memberships are kept in the sets, so they are counted for all the inspected elements
+    memberships += EventsListener.elementSetMemberships(e);
+    if (EventsListener.hasListener(e)) {
+      holds = true;
+      listeners++;
+      handlers += EventsListener.handlersCount(e);
+      liveBindFunctions += EventsListener.liveBindFunctionsCount(e);
+      liveHandlers += EventsListener.liveHandlersCount(e);
+      elementSets += EventsListener.elementSetsCount(e);
+      elementSetMembers += EventsListener.elementSetsSize(e);
+      for (Element r : EventsListener.referencedElements(e)) {
+        retained(r);
+      }
+    }
+    if (holds && isNode(e) && JsUtils.isDetached(e)) {
+      addDetached(e);
+    }
+  }
+
+  private void retained(Element e) {
+    if (JsUtils.isDetached(e)) {
+      detachedReferences++;
+      addDetached(e);
+    }
+  }
+
+  private void addDetached(Element e) {
+    if (!detachedIds.exists(e.hashCode())) {
+      detachedIds.putBoolean(e.hashCode(), true);
+      detached.add(e);
+    }
+  }
+
+  private static boolean isNode(Element e) {
+    return e != GQuery.window && e.getNodeType() != Node.DOCUMENT_NODE;
+  }
+
+  /**
+   * Return an approximation of the memory in bytes held by gQuery for the inspected elements.
+   */
+  public int approxBytes() {
+    return dataEntries * DATA_ENTRY_SIZE + dataValues * DATA_VALUE_SIZE
+        + listeners * LISTENER_SIZE + (handlers + liveHandlers) * HANDLER_SIZE
+        + liveBindFunctions * LIVE_BIND_FUNCTION_SIZE + queuedFunctions * QUEUED_FUNCTION_SIZE;
+  }
+
+  public String toString() {
+    return "elements: " + elements
+        + ", data: " + dataEntries + " (" + dataValues + " values)"
+        + ", listeners: " + listeners + " (" + handlers + " handlers)"
+        + ", delegation: " + liveBindFunctions + " (" + liveHandlers + " handlers)"
+        + ", element sets: " + elementSets + " (" + elementSetMembers + " elements)"
+        + ", queued: " + queuedFunctions
+        + ", observed: " + observedElements
+        + ", detached: " + detached.size()
+        + ", orphaned: " + orphanedEntries
+        + ", ~" + approxBytes() + " bytes";
+  }
+}
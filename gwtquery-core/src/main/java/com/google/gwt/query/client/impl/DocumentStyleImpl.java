@@ -21,11 +21,15 @@ import com.google.gwt.dom.client.Document;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.Node;
 import com.google.gwt.query.client.GQuery;
+import com.google.gwt.query.client.js.JsCache;
 import com.google.gwt.query.client.js.JsNamedArray;
 import com.google.gwt.query.client.js.JsUtils;
 import com.google.gwt.regexp.shared.RegExp;
 import com.google.gwt.user.client.DOM;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A helper class to get computed CSS styles for elements.
  */
@@ -166,6 +170,161 @@ public class DocumentStyleImpl {
     return ret;
   }
 
+  /**
+   * Return a set of geometry values for all the elements in a single array, where the values of the
+   * element <code>i</code> are stored from the position <code>i * names.length</code> in the same
+   * order than the names passed.
+   *
+   * Names can be any of the sizes supported by {@link #getVisibleSize(Element, String)}, 'left' and
+   * 'top' for the position relative to the document, 'positionLeft' and 'positionTop' for the
+   * position relative to the offset parent like {@link GQuery#position()}, or any numeric css
+   * property.
+   *
+   * Unlike calling getVisibleSize per element, which forces a layout each time it swaps styles of
+   * hidden elements, this method groups all style changes before reading: detached trees are
+   * attached once per root, and styles are swapped once per hidden ancestor.
+   */
+  public double[] getVisibleSizes(Element[] elems, String... names) {
+    double[] ret = new double[elems.length * names.length];
+    if (ret.length == 0) {
+      return ret;
+    }
+
+    // Attach detached trees once per root
+    List<Element> detached = new ArrayList<>();
+    JsCache seen = JsCache.create();
+    for (Element e : elems) {
+      if (isMeasurable(e) && JsUtils.isDetached(e)) {
+        Element root = e;
+        while (root.getParentElement() != null) {
+          root = root.getParentElement();
+        }
+        if (!seen.exists(root.hashCode())) {
+          seen.put(root.hashCode(), root);
+          detached.add(root);
+        }
+      }
+    }
+    for (Element root : detached) {
+      Document.get().getBody().appendChild(root);
+    }
+
+    // Offset parents must be the same ones as when hidden ancestors are shown, so in this case
+    // ancestors are displayed without taking them out of the flow
+    boolean keepPosition = false;
+    for (String name : names) {
+      keepPosition = keepPosition || "positionLeft".equals(name) || "positionTop".equals(name);
+    }
+
+    // Look for the ancestors not displayed of each hidden element, stopping at the ones
+    // already visited by a previous element
+    List<Element> swapped = new ArrayList<>();
+    seen = JsCache.create();
+    for (Element e : elems) {
+      if (isMeasurable(e) && !isVisible(e)) {
+        for (Element n = e; n != null && !seen.exists(n.hashCode()); n = n.getParentElement()) {
+          seen.put(n.hashCode(), n);
+          if ("none".equals(getComputedStyle(n, "display", "display", null))) {
+            swapped.add(n);
+          }
+        }
+      }
+    }
+    String[] saved = new String[swapped.size() * 3];
+    for (int i = 0; i < swapped.size(); i++) {
+      Element n = swapped.get(i);
+      saved[i * 3] = curCSS(n, "display", false);
+      saved[i * 3 + 1] = curCSS(n, "position", false);
+      saved[i * 3 + 2] = curCSS(n, "visibility", false);
+      setStyleProperty(n, "display", "block");
+      if (!keepPosition) {
+        setStyleProperty(n, "position", "absolute");
+      }
+      setStyleProperty(n, "visibility", "hidden");
+    }
+
+    // Fix inline elements before reading, so as we do not interleave reads and writes
+    for (String name : names) {
+      if ("width".equals(name) || "height".equals(name)) {
+        List<Element> inlines = new ArrayList<>();
+        for (Element e : elems) {
+          if (isMeasurable(e) && e.getClientHeight() == 0 && e.getClientWidth() == 0
+              && "inline".equals(curCSS(e, "display", true))) {
+            inlines.add(e);
+          }
+        }
+        for (Element e : inlines) {
+          setStyleProperty(e, "display", "inline-block");
+          setStyleProperty(e, "width", "auto");
+          setStyleProperty(e, "height", "auto");
+        }
+        break;
+      }
+    }
+
+    // Read all values in a single pass, so as layout is computed once
+    for (int i = 0, k = 0; i < elems.length; i++) {
+      Element e = elems[i];
+      if (!isMeasurable(e)) {
+        k += names.length;
+        continue;
+      }
+      for (String name : names) {
+        if ("left".equals(name)) {
+          ret[k++] = e.getAbsoluteLeft();
+        } else if ("top".equals(name)) {
+          ret[k++] = e.getAbsoluteTop();
+        } else if ("positionLeft".equals(name)) {
+          ret[k++] = getPosition(e, true);
+        } else if ("positionTop".equals(name)) {
+          ret[k++] = getPosition(e, false);
+        } else if (sizeRegex.test(name)) {
+          ret[k++] = getSize(e, name);
+        } else {
+          ret[k++] = num(curCSS(e, name, true));
+        }
+      }
+    }
+
+    // Restore styles and detach temporary attached trees
+    for (int i = swapped.size() - 1; i >= 0; i--) {
+      Element n = swapped.get(i);
+      setStyleProperty(n, "display", saved[i * 3]);
+      setStyleProperty(n, "position", saved[i * 3 + 1]);
+      setStyleProperty(n, "visibility", saved[i * 3 + 2]);
+    }
+    for (Element root : detached) {
+      root.removeFromParent();
+    }
+    return ret;
+  }
+
+  // Position relative to the offset parent, computed like GQuery.position() does, the offset
+  // parent is resolved here so as it is the one of the element while its ancestors are shown
+  private double getPosition(Element e, boolean left) {
+    double ret;
+    if (left) {
+      // When margin-left = auto, Safari and chrome return a value while IE and
+      // Firefox return 0
+      ret = e.getAbsoluteLeft()
+          - ("auto".equals(e.getStyle().getMarginLeft()) ? 0 : cur(e, "marginLeft", true));
+    } else {
+      ret = e.getAbsoluteTop() - cur(e, "marginTop", true);
+    }
+    Element parent = e.getOffsetParent();
+    if (parent != null) {
+      if (parent != GQuery.body) {
+        ret -= left ? parent.getAbsoluteLeft() : parent.getAbsoluteTop();
+      }
+      ret -= cur(parent, left ? "borderLeftWidth" : "borderTopWidth", true);
+    }
+    return ret;
+  }
+
+  private static boolean isMeasurable(Node n) {
+    return JsUtils.isElement(n) && n.getNodeType() == Node.ELEMENT_NODE;
+  }
+
   // inline elements do not have width nor height unless we set it to inline-block
   private void fixInlineElement(Element e) {
     if (e.getClientHeight() == 0 && e.getClientWidth() == 0
@@ -25,6 +25,7 @@ import com.google.gwt.dom.client.Node;
 import com.google.gwt.dom.client.NodeList;
 import com.google.gwt.query.client.Predicate;
 import com.google.gwt.query.client.js.JsMap;
+import com.google.gwt.query.client.js.JsNamedArray;
 import com.google.gwt.query.client.js.JsNodeArray;
 import com.google.gwt.query.client.js.JsUtils;
 import com.google.gwt.regexp.shared.MatchResult;
@@ -100,6 +101,49 @@ public class SelectorEngine implements HasSelector {
     return r;
   }-*/;
 
+  /**
+   * Predicate which tests one element against a selector using the filter
+   * method, it is used when the browser can not evaluate the selector natively.
+   */
+  private class FilterMatcher extends Predicate {
+    protected final String selector;
+
+    public FilterMatcher(String selector) {
+      this.selector = selector;
+    }
+
+    public boolean f(Element e, int index) {
+      return filter(JsNodeArray.create(e), selector).getLength() > 0;
+    }
+  }
+
+  /**
+   * Predicate which tests one element against a selector using the native
+   * <code>Element.matches</code> method, falling back to the filter method
+   * when the browser rejects the selector.
+   */
+  private class NativeMatcher extends FilterMatcher {
+    private boolean unsupported;
+
+    public NativeMatcher(String selector) {
+      super(selector);
+    }
+
+    public boolean f(Element e, int index) {
+      if (!Element.is(e)) {
+        return false;
+      }
+      if (!unsupported) {
+        try {
+          return matchesSelectorImpl(e, selector);
+        } catch (Exception ex) {
+          unsupported = true;
+        }
+      }
+      return super.f(e, index);
+    }
+  }
+
   public final SelectorEngineImpl impl;
 
   /**
@@ -113,8 +157,12 @@ public class SelectorEngine implements HasSelector {
 
   public static final boolean hasQuerySelector = hasQuerySelectorAll();
 
+  public static final boolean hasMatchesSelector = hasMatchesSelector();
+
   public static JsMap<String, Predicate> filters;
 
+  private JsNamedArray<Predicate> matchers;
+
   static {
     filters = JsMap.create();
     filters.put("visible", new Predicate() {
@@ -217,6 +265,30 @@ public class SelectorEngine implements HasSelector {
     return res;
   }
 
+  /**
+   * Return a {@link Predicate} which tests whether a single element matches the
+   * selector. Traversal methods use it to check nodes while they walk the DOM,
+   * instead of collecting all candidates and filtering them afterwards.
+   *
+   * Predicates are compiled once per selector and cached. They use the native
+   * <code>Element.matches</code> when available, otherwise, or when the selector
+   * has gQuery-only pseudo-classes, they fallback to the filter method.
+   */
+  public Predicate matcher(String selector) {
+    if (matchers == null) {
+      matchers = JsNamedArray.create();
+    }
+    Predicate ret = matchers.get(selector);
+    if (ret == null) {
+      ret = hasMatchesSelector && !gQueryPseudo.test(selector) && !nativePseudo.test(selector)
+          && !selector.contains("!=")
+          && !selector.matches(SelectorEngineNative.NATIVE_EXCEPTIONS_REGEXP)
+          ? new NativeMatcher(selector) : new FilterMatcher(selector);
+      matchers.put(selector, ret);
+    }
+    return ret;
+  }
+
   // pseudo selectors which are computed by gquery in runtime
   RegExp gQueryPseudo =
       RegExp.compile(
@@ -291,6 +363,20 @@ public class SelectorEngine implements HasSelector {
            typeof $doc.querySelectorAll == 'function';
   }-*/;
 
+  /**
+   * Check if the browser can test an element against a css selector.
+   */
+  public static native boolean hasMatchesSelector() /*-{
+    var e = $doc.documentElement;
+    return !!(e && (e.matches || e.webkitMatchesSelector || e.mozMatchesSelector
+        || e.msMatchesSelector));
+  }-*/;
+
+  private static native boolean matchesSelectorImpl(Element e, String selector) /*-{
+    var f = e.matches || e.webkitMatchesSelector || e.mozMatchesSelector || e.msMatchesSelector;
+    return f.call(e, selector);
+  }-*/;
+
   public static native boolean hasXpathEvaluate() /*-{
     return !!$doc.evaluate;
   }-*/;
@@ -117,6 +117,14 @@ public class JsCache extends JavaScriptObject {
     return r == null ? 0 : r;
   }
 
+  /**
+   * Return the number stored with the given id without boxing it, or 0 if there is no such
+   * number.
+   */
+  public final native double getNumber(Object id) /*-{
+    return +this[id] || 0;
+  }-*/;
+
   public final native String getString(Object id) /*-{
     return this[id] == null ? null : String(this[id]);
   }-*/;
@@ -134,6 +142,13 @@ public class JsCache extends JavaScriptObject {
     return (o != null && o instanceof JavaScriptObject) ? ((JavaScriptObject) o).<T> cast() : null;
   }
 
+  /**
+   * Return whether the value stored with the given id is truthy, without boxing it.
+   */
+  public final native boolean isTrue(Object id) /*-{
+    return !!this[id];
+  }-*/;
+
   public final native boolean isEmpty() /*-{
     for (k in this) {
      if (this.hasOwnProperty(k))
@@ -87,4 +87,11 @@ public final class JsObjectArray<T> extends JavaScriptObject {
   public Object[] elements() {
     return c().elements();
   }
+
+  /**
+   * Remove all the elements, keeping the same array.
+   */
+  public native void clear() /*-{
+    this.length = 0;
+  }-*/;
 }
@@ -16,15 +16,26 @@
 package com.google.gwt.query.client.plugins;
 
 import com.google.gwt.animation.client.Animation;
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationHandle;
+import com.google.gwt.core.client.Duration;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.query.client.Function;
 import com.google.gwt.query.client.GQuery;
+import com.google.gwt.query.client.Promise;
 import com.google.gwt.query.client.Properties;
 import com.google.gwt.query.client.js.JsMap;
+import com.google.gwt.query.client.plugins.effects.AnimationGroup;
 import com.google.gwt.query.client.plugins.effects.Fx;
+import com.google.gwt.query.client.plugins.effects.PropertiesAnimation;
 import com.google.gwt.query.client.plugins.effects.PropertiesAnimation.Easing;
 import com.google.gwt.query.client.plugins.effects.PropertiesAnimation.EasingCurve;
+import com.google.gwt.query.client.plugins.effects.PropertiesAnimation.FxTarget;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Effects plugin for Gwt Query.
@@ -33,6 +44,9 @@ public class Effects extends QueuePlugin<Effects> {
 
   /**
    * Class to access protected methods in Animation.
+   *
+   * Instead of scheduling their own frames, all running animations are driven by a shared
+   * ticker, see {@link Effects#activeAnimations()}.
    */
   public abstract static class GQAnimation extends Animation {
 
@@ -45,6 +59,79 @@ public class Effects extends QueuePlugin<Effects> {
     protected Function[] funcs;
     protected Effects g;
 
+    // State of the run, the timing of GWT Animation is replaced by the ticker
+    private int duration;
+    private double startTime;
+    private boolean running;
+    private boolean started;
+    private boolean wasStarted;
+    private boolean ticking;
+    private int runId;
+    // Progress computed by the ticker for the current frame, NaN when there is no update
+    private double frameProgress = Double.NaN;
+
+    @Override
+    public void run(int duration, double startTime, Element element) {
+      cancel();
+      this.duration = duration;
+      this.startTime = startTime;
+      running = true;
+      started = false;
+      frameProgress = Double.NaN;
+      runId++;
+      // Start or complete the animation synchronously when it is due, like GWT Animation does
+      if (update(Duration.currentTimeMillis()) && !ticking) {
+        ticking = true;
+        Ticker.add(this);
+      }
+    }
+
+    @Override
+    public boolean isRunning() {
+      return running;
+    }
+
+    /**
+     * Called in each frame before any animation updates its element, so as animations can read
+     * layout values without forcing a reflow of the document. Styles must not be modified here.
+     */
+    protected void beforeUpdate(double progress) {
+    }
+
+    private void prepare(double now) {
+      frameProgress = Double.NaN;
+      if (running && started && now < startTime + duration) {
+        frameProgress = interpolate((now - startTime) / duration);
+        beforeUpdate(frameProgress);
+      }
+    }
+
+    private boolean update(double now) {
+      int curRunId = runId;
+      boolean finished = now >= startTime + duration;
+      if (started && !finished) {
+        if (!Double.isNaN(frameProgress)) {
+          onUpdate(frameProgress);
+          frameProgress = Double.NaN;
+        }
+        return running && runId == curRunId;
+      }
+      if (!started && now >= startTime) {
+        started = true;
+        onStart();
+        if (!running || runId != curRunId) {
+          return false;
+        }
+      }
+      if (finished) {
+        running = false;
+        started = false;
+        onComplete();
+        return false;
+      }
+      return true;
+    }
+
     public GQAnimation setElement(Element element) {
       e = element;
       g = $(e).as(Effects);
@@ -88,7 +175,119 @@ public class Effects extends QueuePlugin<Effects> {
       // avoid memory leak (issue #132)
       $(e).removeData(ACTUAL_ANIMATION);
       super.cancel();
+      if (running) {
+        wasStarted = started;
+        running = false;
+        started = false;
+        onCancel();
+      }
+    }
+
+    protected void onCancel() {
+      if (wasStarted) {
+        onComplete();
+      }
+    }
+  }
+
+  /**
+   * Drives all running animations from one animation frame callback.
+   *
+   * In each frame the progress of every animation is computed first, and then all of them
+   * update their elements, so as style writes are not interleaved with layout reads. Frames are
+   * not requested while the page is hidden, and animations resume where they were paused.
+   */
+  private static class Ticker {
+    private static final List<GQAnimation> animations = new ArrayList<>();
+    private static AnimationHandle frame;
+    private static boolean hidden;
+    private static double hiddenAt;
+    private static boolean listening;
+
+    private static final AnimationCallback callback = new AnimationCallback() {
+      public void execute(double timestamp) {
+        frame = null;
+        tick(Duration.currentTimeMillis());
+      }
+    };
+
+    static void add(GQAnimation a) {
+      if (!listening) {
+        listening = true;
+        hidden = listenVisibility();
+      }
+      animations.add(a);
+      schedule();
+    }
+
+    static int count() {
+      int ret = 0;
+      for (GQAnimation a : animations) {
+        if (a.running) {
+          ret++;
+        }
+      }
+      return ret;
+    }
+
+    private static void schedule() {
+      if (frame == null && !hidden && !animations.isEmpty()) {
+        frame = AnimationScheduler.get().requestAnimationFrame(callback);
+      }
+    }
+
+    private static void tick(double now) {
+      // animations started by callbacks are updated in the next frame
+      int n = animations.size();
+      for (int i = 0; i < n; i++) {
+        animations.get(i).prepare(now);
+      }
+      for (int i = 0; i < n; i++) {
+        GQAnimation a = animations.get(i);
+        if (a.running) {
+          a.update(now);
+        }
+      }
+      int j = 0;
+      for (int i = 0, l = animations.size(); i < l; i++) {
+        GQAnimation a = animations.get(i);
+        if (a.running) {
+          animations.set(j++, a);
+        } else {
+          a.ticking = false;
+        }
+      }
+      animations.subList(j, animations.size()).clear();
+      schedule();
+    }
+
+    private static void visibilityChanged(boolean isHidden) {
+      double now = Duration.currentTimeMillis();
+      if (isHidden && !hidden) {
+        hiddenAt = now;
+        if (frame != null) {
+          frame.cancel();
+          frame = null;
+        }
+      } else if (!isHidden && hidden) {
+        // shift the animations, so as they continue from the progress they had when hidden
+        for (GQAnimation a : animations) {
+          a.startTime += Math.max(0, now - Math.max(hiddenAt, a.startTime));
+        }
+      }
+      hidden = isHidden;
+      schedule();
     }
+
+    private static native boolean listenVisibility() /*-{
+      if (!$doc.addEventListener || $doc.hidden === undefined) {
+        return false;
+      }
+      $doc.addEventListener("visibilitychange", $entry(function() {
+        @com.google.gwt.query.client.plugins.Effects.Ticker::visibilityChanged(*)(!!$doc.hidden);
+      }), false);
+      return !!$doc.hidden;
+    }-*/;
   }
 
   /**
@@ -111,6 +310,11 @@ public class Effects extends QueuePlugin<Effects> {
     super(gq);
   }
 
+  @Override
+  protected boolean isReusableView() {
+    return getClass() == Effects.class;
+  }
+
   /**
    * Queue an animation for an element.
    *
@@ -143,6 +347,15 @@ public class Effects extends QueuePlugin<Effects> {
     return Fx.off;
   }
 
+  /**
+   * Return the number of animations currently driven by the shared animation ticker.
+   *
+   * Animations based on css transitions are run by the browser, so they are not counted.
+   */
+  public static int activeAnimations() {
+    return Ticker.count();
+  }
+
   /**
    * Maintain a cache table with vendor properties so as plugins can use it.
    */
@@ -229,14 +442,78 @@ public class Effects extends QueuePlugin<Effects> {
     }
     duration = Math.abs(duration);
 
+    FxTarget[] targets = null;
     for (Element e : elements()) {
       GQAnimation a = createAnimation();
       a.setEasing(easing).setProperties(p).setElement(e).setCallback(funcs);
+      if (a instanceof PropertiesAnimation) {
+        // target values are parsed once for all the elements
+        if (targets == null) {
+          targets = PropertiesAnimation.computeFxTargets(p);
+        }
+        ((PropertiesAnimation) a).setTargets(targets);
+      }
       queueAnimation(a, duration);
     }
     return this;
   }
 
+  /**
+   * Animate all the matched elements in one group sharing a single timeline, starting each
+   * element <code>stagger</code> milliseconds after the previous one.
+   *
+   * Unlike {@link #animate(Object, int, Easing, Function...)}, which runs an independent animation
+   * per element, the start values of all the elements are read at once and just one animation is
+   * updated in each frame. The group waits in the effects queue of every element, and starts once
+   * all of them reach it. Stopping any of the elements stops the whole group.
+   *
+   * Example:
+   *
+   * <pre class="code">
+   *  $("li").as(Effects).animateGroup("opacity: 1, left: '+=20px'", 300, 30, EasingCurve.easeOut)
+   *    .done(new Function() {...});
+   * </pre>
+   *
+   * @param stringOrProperties object containing css properties to animate.
+   * @param duration the duration in milliseconds of the animation of each element
+   * @param stagger the delay in milliseconds between the start of consecutive elements
+   * @param easing the easing function to use for the transition of each element
+   * @param funcs an array of {@link Function} called for each element once the group is complete
+   * @return a promise resolved when the group completes, or rejected when it is stopped
+   */
+  public Promise animateGroup(Object stringOrProperties, int duration, int stagger, Easing easing,
+      Function... funcs) {
+    final Properties p = (stringOrProperties instanceof String)
+        ? (Properties) $$((String) stringOrProperties)
+        : (Properties) stringOrProperties;
+
+    if (p.getStr("duration") != null) {
+      duration = p.getInt("duration");
+    }
+
+    final AnimationGroup group = new AnimationGroup(elements()).setDuration(Math.abs(duration))
+        .setStagger(stagger);
+    group.setEasing(easing).setProperties(p).setCallback(funcs);
+    if (isEmpty() || isOff()) {
+      group.onStart();
+      group.onComplete();
+    } else {
+      Function f = new Function() {
+        public void cancel(Element e) {
+          group.stop(e);
+        }
+
+        public void f(Element e) {
+          group.arrive(e);
+        }
+      };
+      for (Element e : elements()) {
+        queue(e, DEFAULT_NAME, f);
+      }
+    }
+    return group.promise();
+  }
+
   /**
    * Override this to create plugins with customized animation implementation.
    *
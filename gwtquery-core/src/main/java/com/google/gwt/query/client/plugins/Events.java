@@ -13,16 +13,27 @@
  */
 package com.google.gwt.query.client.plugins;
 
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.FormElement;
 import com.google.gwt.dom.client.NativeEvent;
 import com.google.gwt.dom.client.Node;
+import com.google.gwt.query.client.EventFunction;
 import com.google.gwt.query.client.Function;
 import com.google.gwt.query.client.GQuery;
 import com.google.gwt.query.client.js.JsUtils;
 import com.google.gwt.query.client.plugins.events.EventsListener;
 import com.google.gwt.query.client.plugins.events.EventsListener.EventName;
+import com.google.gwt.query.client.plugins.events.ListenerOptions;
+import com.google.gwt.query.client.plugins.events.RateLimitedFunction;
+import com.google.gwt.query.client.plugins.events.RateLimitedFunction.Mode;
+import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.Event;
+import com.google.gwt.user.client.EventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * GQuery Plugin for handling and queuing browser events.
@@ -43,10 +54,147 @@ public class Events extends GQuery {
         && n.getNodeType() != 8;
   }
 
+  /**
+   * Wrap the handler so as it is executed at the first event, then at most once per interval
+   * with the latest event.
+   * <pre>
+   *   $(window).bind("scroll.sticky", null, Events.throttle(100, updateHeader));
+   *   ...
+   *   $(window).unbind(".sticky");
+   * </pre>
+   *
+   * @see RateLimitedFunction
+   */
+  public static Function throttle(int millis, Function handler) {
+    return new RateLimitedFunction(Mode.THROTTLE, millis, handler);
+  }
+
+  /**
+   * Wrap the handler so as it is executed with the latest event once events stop arriving
+   * during the interval.
+   *
+   * @see RateLimitedFunction
+   */
+  public static Function debounce(int millis, Function handler) {
+    return new RateLimitedFunction(Mode.DEBOUNCE, millis, handler);
+  }
+
+  /**
+   * Wrap the handler so as it is executed at most once per animation frame with the latest
+   * event.
+   *
+   * @see RateLimitedFunction
+   */
+  public static Function perFrame(Function handler) {
+    return new RateLimitedFunction(Mode.FRAME, 0, handler);
+  }
+
+  // When not null bind, one and unbind delegate the handlers to this element
+  private Element delegationRoot;
+
+  // Options of the native listeners registered when binding events by name
+  private ListenerOptions listenerOptions;
+
+  // When true elements bound in one call share the handler descriptors
+  private boolean sharedHandlers;
+
   public Events(GQuery gq) {
     super(gq);
   }
 
+  @Override
+  protected boolean isReusableView() {
+    return getClass() == Events.class;
+  }
+
+  /**
+   * Return a view of the matched elements whose bind, one and unbind methods register handlers
+   * in one listener per event type at the document, instead of creating a listener per element.
+   *
+   * @see #delegated(Element)
+   */
+  public Events delegated() {
+    return delegated(null);
+  }
+
+  /**
+   * Return a view of the matched elements whose bind, one and unbind methods register handlers
+   * in one listener per event type at the container, instead of creating a listener per element.
+   * Binding the same handlers to large sets of elements is much cheaper in memory and time.
+   * <pre>
+   *   $(".cell").as(Events).delegated(grid).bind("click", null, handler);
+   *   ...
+   *   $(".cell").as(Events).delegated(grid).unbind("click");
+   * </pre>
+   *
+   * Handlers are only bound to the matched elements, not to elements added later like in
+   * {@link #live(String, Object, Function...)}. They are executed when the event bubbles up to
+   * the container, so elements must be descendants of it, and handlers bound with the normal
+   * mode run before them.
+   *
+   * Elements bound with the same handler, namespace and data share one entry in the container,
+   * even when they are bound one by one, so binding that handler twice to an element runs it
+   * once. The container does not reference the elements, which are unbound when they are
+   * removed with {@link GQuery#remove()} or {@link GQuery#empty()}.
+   */
+  public Events delegated(Element container) {
+    Events ret = new Events(this);
+    ret.delegationRoot = container != null ? container : body;
+    ret.listenerOptions = listenerOptions;
+    ret.sharedHandlers = sharedHandlers;
+    return ret;
+  }
+
+  /**
+   * Return a view of the matched elements whose bind methods taking event names register the
+   * native listeners with the options passed.
+   * <pre>
+   *   $(scroller).as(Events).withOptions(new ListenerOptions().setPassive(false))
+   *     .bind("touchmove", null, preventScrolling);
+   * </pre>
+   *
+   * Listeners of scroll-blocking events (touchstart, touchmove and wheel) are passive by default,
+   * so handlers must ask for non passive listeners to be able to prevent the default action.
+   * Options are not used in the delegated mode.
+   */
+  public Events withOptions(ListenerOptions options) {
+    Events ret = new Events(this);
+    ret.delegationRoot = delegationRoot;
+    ret.listenerOptions = options;
+    ret.sharedHandlers = sharedHandlers;
+    return ret;
+  }
+
+  /**
+   * Return a view of the matched elements whose bind methods taking event names share one
+   * immutable handler descriptor per event and function among all the elements, instead of
+   * creating one per element. It reduces the memory used when binding large sets of elements.
+   * <pre>
+   *   $(".cell").as(Events).sharedHandlers().bind("click.grid", null, handler);
+   * </pre>
+   *
+   * Handlers are unbound as usual, by function, event or namespace, and unbinding them from
+   * some elements does not affect the rest. Handlers executed once are not shared.
+   */
+  public Events sharedHandlers() {
+    Events ret = new Events(this);
+    ret.delegationRoot = delegationRoot;
+    ret.listenerOptions = listenerOptions;
+    ret.sharedHandlers = true;
+    return ret;
+  }
+
+  private Element[] capableElements() {
+    Element[] ret = new Element[size()];
+    int n = 0;
+    for (Element e : elements()) {
+      if (isEventCapable(e) && !JsUtils.isWindow(e)) {
+        ret[n++] = e;
+      }
+    }
+    return n == ret.length ? ret : Arrays.copyOf(ret, n);
+  }
+
   /**
    * Binds a set of handlers to a particular Event for each matched element.
    *
@@ -57,6 +205,9 @@ public class Events extends GQuery {
    *
    */
   public Events bind(int eventbits, Object data, Function... funcs) {
+    if (delegationRoot != null) {
+      return bind(eventbits, null, data, funcs);
+    }
     for (Element e : elements()) {
       if (isEventCapable(e)) {
         EventsListener.getInstance(e).bind(eventbits, data, funcs);
@@ -78,6 +229,11 @@ public class Events extends GQuery {
    *
    */
   public Events bind(int eventbits, String namespace, Object data, Function... funcs) {
+    if (delegationRoot != null) {
+      EventsListener.getInstance(delegationRoot).liveElements(eventbits, namespace,
+          capableElements(), data, false, funcs);
+      return this;
+    }
     for (Element e : elements()) {
       if (isEventCapable(e)) {
         EventsListener.getInstance(e).bind(eventbits, namespace, data, funcs);
@@ -99,14 +255,41 @@ public class Events extends GQuery {
    *
    */
   public Events bind(String event, Object data, Function... funcs) {
+    if (delegationRoot != null) {
+      EventsListener.getInstance(delegationRoot).liveElements(event, capableElements(), data,
+          false, funcs);
+      return this;
+    }
+    if (sharedHandlers) {
+      List<Element> capable = new ArrayList<>();
+      for (Element e : elements()) {
+        if (isEventCapable(e)) {
+          capable.add(e);
+        }
+      }
+      EventsListener.bindShared(capable.toArray(new Element[capable.size()]), event, data,
+          listenerOptions, funcs);
+      return this;
+    }
     for (Element e : elements()) {
       if (isEventCapable(e)) {
-        EventsListener.getInstance(e).bind(event, data, funcs);
+        EventsListener.getInstance(e).bind(event, data, listenerOptions, funcs);
       }
     }
     return this;
   }
 
+  /**
+   * Binds a stateless handler to a particular Event for each matched element.
+   *
+   * The handler is called directly from the dispatch loop without setting any event, element or
+   * arguments state, so it can be written as a lambda. To stop both default action and event
+   * bubbling, the handler has to return false.
+   */
+  public Events onEvent(String event, EventFunction handler) {
+    return bind(event, null, new EventFunctionAdapter(handler));
+  }
+
   public GQuery die(int eventbits, String nameSpace) {
     EventsListener.getInstance(Element.is(currentContext) ? (Element) currentContext : body).die(
         eventbits, nameSpace, null, currentSelector);
@@ -193,6 +376,11 @@ public class Events extends GQuery {
    * You can pass an additional Object data to your Function as the second parameter
    */
   public Events one(int eventbits, final Object data, final Function f) {
+    if (delegationRoot != null) {
+      EventsListener.getInstance(delegationRoot).liveElements(eventbits, null,
+          capableElements(), data, true, f);
+      return this;
+    }
     for (Element e : elements()) {
       if (isEventCapable(e)) {
         EventsListener.getInstance(e).bind(eventbits, data, f, 1);
@@ -318,12 +506,112 @@ public class Events extends GQuery {
     return this;
   }
 
+  /**
+   * Run the gQuery handlers bound to the matched elements for a html event, without dispatching
+   * it through the browser.
+   *
+   * It is intended to broadcast events to large sets of elements: elements without handlers are
+   * skipped, and data is passed directly to the handlers. Each element receives its own light
+   * event which supports preventDefault, stopPropagation and stopImmediatePropagation.
+   *
+   * The event does not bubble, so handlers bound to ancestors are not run, neither those
+   * delegated to them with live, delegate or delegated. Listeners added outside gQuery and GWT
+   * are not run either, and no default action is performed. Elements with a GWT listener, like
+   * widgets, receive a native event as in {@link #triggerHtmlEvent(String, Object[], Function...)}.
+   *
+   * @param htmlEvent An string representing the desired html event.
+   * @param datas a set of object passed as data when executed the handlers
+   * @param functions a set of function to run for each element if the event is not canceled.
+   */
+  public Events triggerHandlers(String htmlEvent, Object[] datas, Function... functions) {
+    for (EventName part : EventName.split(htmlEvent)) {
+      JavaScriptObject eventType = null;
+      for (Element e : elements()) {
+        if (!isEventCapable(e)) {
+          continue;
+        }
+        EventsListener listener = EventsListener.hasListener(e) ? EventsListener.getInstance(e)
+            : null;
+        EventListener gwtListener = listener != null ? listener.getOriginalEventListener()
+            : DOM.getEventListener(e);
+        if (gwtListener != null && gwtListener != listener) {
+          // GWT listeners expect a browser event
+          $(e).as(Events).triggerHtmlEvent(part.eventName
+              + (part.nameSpace != null ? "." + part.nameSpace : ""), datas, functions);
+          continue;
+        }
+        if (eventType == null) {
+          eventType = createSyntheticEventType(part.eventName, part.nameSpace);
+        }
+        Event evt = createSyntheticEvent(eventType, e);
+        if (listener != null) {
+          listener.dispatchEvent(evt, part.eventName, datas);
+        }
+        if (!JsUtils.isDefaultPrevented(evt)) {
+          callHandlers(e, evt, functions);
+        }
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Run the gQuery handlers bound to the matched elements for a html event, without dispatching
+   * it through the browser.
+   *
+   * @see #triggerHandlers(String, Object[], Function...)
+   */
+  public Events triggerHandlers(String htmlEvent, Function... functions) {
+    return triggerHandlers(htmlEvent, null, functions);
+  }
+
+  // Shared by all the synthetic events, so as each one only holds its targets and the flags set
+  // by its handlers
+  private static final JavaScriptObject syntheticEventPrototype = createSyntheticEventPrototype();
+
+  private static native JavaScriptObject createSyntheticEventPrototype() /*-{
+    return {
+      bubbles: false,
+      cancelable: true,
+      defaultPrevented: false,
+      preventDefault: function() {
+        this.defaultPrevented = true;
+      },
+      stopPropagation: function() {
+        this.cancelBubble = true;
+      },
+      stopImmediatePropagation: function() {
+        this.cancelBubble = this.immediatePropagationStopped = true;
+      }
+    };
+  }-*/;
+
+  /**
+   * Create the prototype of the synthetic events fired to the elements for one event type.
+   */
+  private static native JavaScriptObject createSyntheticEventType(String type, String ns) /*-{
+    var proto = Object.create(@com.google.gwt.query.client.plugins.Events::syntheticEventPrototype);
+    proto.type = type;
+    proto.namespace = ns;
+    proto.timeStamp = new Date().getTime();
+    return proto;
+  }-*/;
+
+  private static native Event createSyntheticEvent(JavaScriptObject proto, Element e) /*-{
+    var evt = Object.create(proto);
+    evt.target = evt.currentTarget = e;
+    return evt;
+  }-*/;
+
   /**
    * Removes all handlers, that matches the events bits passed, from each element.
    *
    * Example: unbind(Event.ONCLICK | Event.ONMOUSEOVER)
    */
   public Events unbind(int eventbits) {
+    if (delegationRoot != null) {
+      return unbind(eventbits, null, null);
+    }
     for (Element e : elements()) {
       if (isEventCapable(e)) {
         EventsListener.getInstance(e).unbind(eventbits);
@@ -333,6 +621,9 @@ public class Events extends GQuery {
   }
 
   public Events off() {
+    if (delegationRoot != null) {
+      return unbind(null, null);
+    }
     for (Element e : elements()) {
       if (isEventCapable(e)) {
         EventsListener.getInstance(e).clean();
@@ -347,6 +638,11 @@ public class Events extends GQuery {
    * Example: unbind(Event.ONCLICK | Event.ONMOUSEOVER, "my.namespace")
    */
   public Events unbind(int eventbits, String name, Function f) {
+    if (delegationRoot != null) {
+      EventsListener.getInstance(delegationRoot).dieElements(eventbits, name, null,
+          capableElements(), f);
+      return this;
+    }
     for (Element e : elements()) {
       if (isEventCapable(e)) {
         EventsListener.getInstance(e).unbind(eventbits, name, null, f);
@@ -373,6 +669,10 @@ public class Events extends GQuery {
    * Example: unbind("click.my.namespace", myFunction)
    */
   public Events unbind(String name, Function f) {
+    if (delegationRoot != null) {
+      EventsListener.getInstance(delegationRoot).dieElements(name, capableElements(), f);
+      return this;
+    }
     for (Element e : elements()) {
       if (isEventCapable(e)) {
         EventsListener.getInstance(e).unbind(name, f);
@@ -381,6 +681,40 @@ public class Events extends GQuery {
     return this;
   }
 
+  /**
+   * Removes a stateless handler previously bound with {@link #onEvent(String, EventFunction)}
+   * from the event list matching the event name passed. This name could contain a namespace.
+   */
+  public Events offEvent(String name, EventFunction handler) {
+    return unbind(name, new EventFunctionAdapter(handler));
+  }
+
+  /**
+   * Register handlers for the descendants of the matched elements which match the selector,
+   * deferring the binding until an event reaches them.
+   *
+   * Only one delegated handler is registered in each matched element, so pages with large
+   * server-rendered markup do not need to walk and bind all elements at startup. The first
+   * time one of the events bubbles from a descendant matching the selector, the handlers are
+   * bound to it for all the events passed, as in {@link #bind(String, Object, Function...)},
+   * and run for that event. From then on they are run by the element listener.
+   * <pre>
+   *   $(document).as(Events).lazyBind(".row", "click keydown", null, rowHandler);
+   * </pre>
+   *
+   * Use {@link #undelegate()} to stop binding elements, elements already bound keep their
+   * handlers.
+   */
+  public Events lazyBind(String selector, String events, Object data, Function... funcs) {
+    Hydrator hydrator = new Hydrator(events, data, funcs);
+    for (Element e : elements()) {
+      if (isEventCapable(e)) {
+        EventsListener.getInstance(e).live(events, selector, data, hydrator);
+      }
+    }
+    return this;
+  }
+
   public Events undelegate() {
     for (Element e : elements()) {
       if (isEventCapable(e)) {
@@ -440,4 +774,81 @@ public class Events extends GQuery {
       f.f(e);
     }
   }
+
+  /**
+   * Delegated handler which binds the handlers to the element the first time an event reaches
+   * it, then runs them for that event.
+   */
+  private static class Hydrator extends Function {
+    private static int counter = 0;
+
+    private static final int CAPTURING_PHASE = 1;
+
+    // data key marking the elements already bound
+    private final String key = "__gq_hydrated_" + counter++;
+    private final String events;
+    private final Object data;
+    private final Function[] funcs;
+
+    Hydrator(String events, Object data, Function[] funcs) {
+      this.events = events;
+      this.data = data;
+      this.funcs = funcs;
+    }
+
+    @Override
+    public boolean f(Event e, Object... arg) {
+      Element element = e.getCurrentEventTarget().cast();
+      if (GQuery.data(element, key) != null) {
+        // the handlers already ran while the event was bubbling
+        return true;
+      }
+      GQuery.data(element, key, true);
+      EventsListener.getInstance(element).bind(events, data, funcs);
+      if (eventPhase(e) == CAPTURING_PHASE) {
+        // events captured at the root have not reached the element yet, so its listener will
+        // run the handlers
+        return true;
+      }
+      boolean ret = true;
+      for (Function f : funcs) {
+        if (!f.fe(e, arg)) {
+          ret = false;
+        }
+      }
+      return ret;
+    }
+
+    private static native int eventPhase(Event e) /*-{
+      return e.eventPhase || 0;
+    }-*/;
+  }
+
+  /**
+   * Adapts a stateless handler to the Function used by the EventsListener. Equality is based on
+   * the handler, so as unbind() can remove it when passing the same handler again.
+   */
+  private static class EventFunctionAdapter extends Function {
+    private final EventFunction handler;
+
+    EventFunctionAdapter(EventFunction handler) {
+      this.handler = handler;
+    }
+
+    @Override
+    public boolean f(Event e, Object... arg) {
+      return handler.f(e);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof EventFunctionAdapter
+          && ((EventFunctionAdapter) obj).handler.equals(handler);
+    }
+
+    @Override
+    public int hashCode() {
+      return handler.hashCode();
+    }
+  }
 }
@@ -13,10 +13,13 @@
  */
 package com.google.gwt.query.client.plugins;
 
+import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.NativeEvent;
+import com.google.gwt.query.client.EventFunction;
 import com.google.gwt.query.client.Function;
 import com.google.gwt.query.client.GQuery;
 import com.google.gwt.query.client.LazyBase;
+import com.google.gwt.query.client.plugins.events.ListenerOptions;
 
 /**
  * LazyEvents.
@@ -24,6 +27,58 @@ import com.google.gwt.query.client.LazyBase;
  */
 public interface LazyEvents<T> extends LazyBase<T> {
 
+  /**
+   * Return a view of the matched elements whose bind, one and unbind methods register handlers
+   * in one listener per event type at the document, instead of creating a listener per element.
+   *
+   * @see #delegated(Element)
+   */
+  LazyEvents<T> delegated();
+
+  /**
+   * Return a view of the matched elements whose bind, one and unbind methods register handlers
+   * in one listener per event type at the container, instead of creating a listener per element.
+   * Binding the same handlers to large sets of elements is much cheaper in memory and time.
+   * <pre>
+   *   $(".cell").as(Events).delegated(grid).bind("click", null, handler);
+   *   ...
+   *   $(".cell").as(Events).delegated(grid).unbind("click");
+   * </pre>
+   *
+   * Handlers are only bound to the matched elements, not to elements added later like in
+   * {@link #live(String, Object, Function...)}. They are executed when the event bubbles up to
+   * the container, so elements must be descendants of it, and handlers bound with the normal
+   * mode run before them.
+   */
+  LazyEvents<T> delegated(Element container);
+
+  /**
+   * Return a view of the matched elements whose bind methods taking event names register the
+   * native listeners with the options passed.
+   * <pre>
+   *   $(scroller).as(Events).withOptions(new ListenerOptions().setPassive(false))
+   *     .bind("touchmove", null, preventScrolling);
+   * </pre>
+   *
+   * Listeners of scroll-blocking events (touchstart, touchmove and wheel) are passive by default,
+   * so handlers must ask for non passive listeners to be able to prevent the default action.
+   * Options are not used in the delegated mode.
+   */
+  LazyEvents<T> withOptions(ListenerOptions options);
+
+  /**
+   * Return a view of the matched elements whose bind methods taking event names share one
+   * immutable handler descriptor per event and function among all the elements, instead of
+   * creating one per element. It reduces the memory used when binding large sets of elements.
+   * <pre>
+   *   $(".cell").as(Events).sharedHandlers().bind("click.grid", null, handler);
+   * </pre>
+   *
+   * Handlers are unbound as usual, by function, event or namespace, and unbinding them from
+   * some elements does not affect the rest. Handlers executed once are not shared.
+   */
+  LazyEvents<T> sharedHandlers();
+
   /**
    * Binds a set of handlers to a particular Event for each matched element.
    *
@@ -63,6 +118,15 @@ public interface LazyEvents<T> extends LazyBase<T> {
    */
   LazyEvents<T> bind(String event, Object data, Function... funcs);
 
+  /**
+   * Binds a stateless handler to a particular Event for each matched element.
+   *
+   * The handler is called directly from the dispatch loop without setting any event, element or
+   * arguments state, so it can be written as a lambda. To stop both default action and event
+   * bubbling, the handler has to return false.
+   */
+  LazyEvents<T> onEvent(String event, EventFunction handler);
+
   GQuery die(int eventbits, String nameSpace);
 
   GQuery die(int eventbits);
@@ -151,6 +215,33 @@ public interface LazyEvents<T> extends LazyBase<T> {
    */
   LazyEvents<T> triggerHtmlEvent(String htmlEvent, Object[] datas, Function... functions);
 
+  /**
+   * Run the gQuery handlers bound to the matched elements for a html event, without dispatching
+   * it through the browser.
+   *
+   * It is intended to broadcast events to large sets of elements: elements without handlers are
+   * skipped, and data is passed directly to the handlers. Each element receives its own light
+   * event which supports preventDefault, stopPropagation and stopImmediatePropagation.
+   *
+   * The event does not bubble, so handlers bound to ancestors are not run, neither those
+   * delegated to them with live, delegate or delegated. Listeners added outside gQuery and GWT
+   * are not run either, and no default action is performed. Elements with a GWT listener, like
+   * widgets, receive a native event as in {@link #triggerHtmlEvent(String, Object[], Function...)}.
+   *
+   * @param htmlEvent An string representing the desired html event.
+   * @param datas a set of object passed as data when executed the handlers
+   * @param functions a set of function to run for each element if the event is not canceled.
+   */
+  LazyEvents<T> triggerHandlers(String htmlEvent, Object[] datas, Function... functions);
+
+  /**
+   * Run the gQuery handlers bound to the matched elements for a html event, without dispatching
+   * it through the browser.
+   *
+   * @see #triggerHandlers(String, Object[], Function...)
+   */
+  LazyEvents<T> triggerHandlers(String htmlEvent, Function... functions);
+
   /**
    * Removes all handlers, that matches the events bits passed, from each element.
    *
@@ -184,6 +275,30 @@ public interface LazyEvents<T> extends LazyBase<T> {
    */
   LazyEvents<T> unbind(String name, Function f);
 
+  /**
+   * Removes a stateless handler previously bound with {@link #onEvent(String, EventFunction)}
+   * from the event list matching the event name passed. This name could contain a namespace.
+   */
+  LazyEvents<T> offEvent(String name, EventFunction handler);
+
+  /**
+   * Register handlers for the descendants of the matched elements which match the selector,
+   * deferring the binding until an event reaches them.
+   *
+   * Only one delegated handler is registered in each matched element, so pages with large
+   * server-rendered markup do not need to walk and bind all elements at startup. The first
+   * time one of the events bubbles from a descendant matching the selector, the handlers are
+   * bound to it for all the events passed, as in {@link #bind(String, Object, Function...)},
+   * and run for that event. From then on they are run by the element listener.
+   * <pre>
+   *   $(document).as(Events).lazyBind(".row", "click keydown", null, rowHandler);
+   * </pre>
+   *
+   * Use {@link #undelegate()} to stop binding elements, elements already bound keep their
+   * handlers.
+   */
+  LazyEvents<T> lazyBind(String selector, String events, Object data, Function... funcs);
+
   LazyEvents<T> undelegate();
 
 }
@@ -23,10 +23,14 @@ public class MouseOptions {
 
   private String[] cancel;
 
+  private boolean coalesceDrag;
+
   private int delay;
 
   private int distance;
 
+  private boolean pointerEvents;
+
   public MouseOptions() {
     initDefault();
   }
@@ -40,6 +44,13 @@ public class MouseOptions {
     return cancel;
   }
 
+  /**
+   * Return whether calls to <code>mouseDrag</code> are coalesced to one per animation frame.
+   */
+  public boolean getCoalesceDrag() {
+    return coalesceDrag;
+  }
+
   /**
    * Return the tolerance, in pixels, for when plugin should start. If
    * specified, the plugin will not start until after mouse is dragged beyond
@@ -57,6 +68,13 @@ public class MouseOptions {
     return distance;
   }
 
+  /**
+   * Return whether Pointer Events are used when the browser supports them.
+   */
+  public boolean getPointerEvents() {
+    return pointerEvents;
+  }
+
   /**
    * Prevents starting of the plugin on specified elements.
    *
@@ -67,6 +85,14 @@ public class MouseOptions {
     this.cancel = cancel;
   }
 
+  /**
+   * Call <code>mouseDrag</code> at most once per animation frame with the latest position,
+   * instead of once per move event. Default: false
+   */
+  public void setCoalesceDrag(boolean coalesceDrag) {
+    this.coalesceDrag = coalesceDrag;
+  }
+
   /**
    * Time in milliseconds to define when the plugin should start. It helps
    * preventing unwanted selections when clicking on an element.
@@ -86,6 +112,16 @@ public class MouseOptions {
     this.distance = distance;
   }
 
+  /**
+   * Handle mouse, touch and pen with Pointer Events when the browser supports them, capturing
+   * the pointer so as the plugin keeps receiving its events while dragging. The
+   * <code>touch-action</code> style of the elements is set to none, so as touch moves are not
+   * used to scroll. Default: false
+   */
+  public void setPointerEvents(boolean pointerEvents) {
+    this.pointerEvents = pointerEvents;
+  }
+
   protected void initDefault() {
     delay = 0;
     distance = 1; // by default, the mouse have to move one pixel !
@@ -13,20 +13,37 @@
  */
 package com.google.gwt.query.client.plugins;
 
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationHandle;
 import com.google.gwt.core.client.Duration;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.NativeEvent;
 import com.google.gwt.query.client.Function;
 import com.google.gwt.query.client.GQuery;
 import com.google.gwt.query.client.plugins.events.GqEvent;
+import com.google.gwt.query.client.plugins.events.ListenerOptions;
 import com.google.gwt.user.client.Event;
 
 /**
  * Base class for all plug-in that need to handle some mouse interactions.
  *
+ * Depending on the {@link MouseOptions} it can handle Pointer Events instead of mouse and touch
+ * events, and call <code>mouseDrag</code> once per animation frame with the latest position.
+ * <code>mouseStart</code> and <code>mouseStop</code> are always called synchronously.
+ *
  */
 public abstract class MousePlugin extends UiPlugin {
 
+  // data key storing the touch-action style of the elements before using pointer events
+  private static final String TOUCH_ACTION_KEY = "__gq_mouse_touch_action";
+
+  private static final boolean pointerEventsSupported = hasPointerEvents();
+
+  private static native boolean hasPointerEvents() /*-{
+    return !!$wnd.PointerEvent;
+  }-*/;
+
   private GqEvent startEvent;
   private boolean started = false;
   private Duration mouseUpDuration;
@@ -35,6 +52,9 @@ public abstract class MousePlugin extends UiPlugin {
   private boolean touchSupported = false;
   private int startX = -1;
   private int startY = -1;
+  private boolean pointerEventsUsed = false;
+  private AnimationHandle dragFrame;
+  private GqEvent pendingDrag;
 
   protected MousePlugin(GQuery gq) {
     super(gq);
@@ -42,7 +62,17 @@ public abstract class MousePlugin extends UiPlugin {
 
   protected void destroyMouseHandler() {
     as(Events)
-        .unbind(Event.ONMOUSEDOWN | Event.ONCLICK | Event.ONTOUCHSTART, getPluginName(), null);
+        .unbind(Event.ONMOUSEDOWN | Event.ONCLICK | Event.ONTOUCHSTART, getPluginName(), null)
+        .unbind("pointerdown." + getPluginName());
+    cancelDragFrame();
+    pendingDrag = null;
+    for (Element e : elements()) {
+      String touchAction = $(e).data(TOUCH_ACTION_KEY);
+      if (touchAction != null) {
+        e.getStyle().setProperty("touchAction", touchAction);
+        $(e).removeData(TOUCH_ACTION_KEY);
+      }
+    }
   }
 
   /**
@@ -57,27 +87,50 @@ public abstract class MousePlugin extends UiPlugin {
    */
   protected void initMouseHandler(MouseOptions options) {
     this.options = options;
+    pointerEventsUsed = options.getPointerEvents() && pointerEventsSupported;
 
     for (final Element e : elements()) {
 
-      $(e).as(Events).bind(Event.ONMOUSEDOWN, getPluginName(), (Object) null, new Function() {
-        @Override
-        public boolean f(com.google.gwt.user.client.Event event) {
-          if (touchSupported) {
-            return true;
-          }
-          return mouseDown(e, GqEvent.create(event));
+      if (pointerEventsUsed) {
+        // prevent the browser from using touch moves to scroll or zoom
+        if ($(e).data(TOUCH_ACTION_KEY) == null) {
+          $(e).data(TOUCH_ACTION_KEY, e.getStyle().getProperty("touchAction"));
         }
-      }).bind(Event.ONTOUCHSTART, getPluginName(), (Object) null, new Function() {
-        public boolean f(com.google.gwt.user.client.Event event) {
-          if (event.getTouches().length() > 1) {
-            return true;
+        e.getStyle().setProperty("touchAction", "none");
+
+        // listen in the bubbling phase, so as nested plugins handle the event first
+        $(e).as(Events).withOptions(new ListenerOptions().setCapture(false))
+            .bind("pointerdown." + getPluginName(), null, new Function() {
+              @Override
+              public boolean f(com.google.gwt.user.client.Event event) {
+                if (!isPrimary(event)) {
+                  return true;
+                }
+                return mouseDown(e, GqEvent.create(event));
+              }
+            });
+      } else {
+        $(e).as(Events).bind(Event.ONMOUSEDOWN, getPluginName(), (Object) null, new Function() {
+          @Override
+          public boolean f(com.google.gwt.user.client.Event event) {
+            if (touchSupported) {
+              return true;
+            }
+            return mouseDown(e, GqEvent.create(event));
           }
+        }).bind(Event.ONTOUCHSTART, getPluginName(), (Object) null, new Function() {
+          public boolean f(com.google.gwt.user.client.Event event) {
+            if (event.getTouches().length() > 1) {
+              return true;
+            }
 
-          touchSupported = true;
-          return mouseDown(e, GqEvent.create(event));
-        }
-      }).bind(Event.ONCLICK, getPluginName(), (Object) null, new Function() {
+            touchSupported = true;
+            return mouseDown(e, GqEvent.create(event));
+          }
+        });
+      }
+
+      $(e).as(Events).bind(Event.ONCLICK, getPluginName(), (Object) null, new Function() {
         @Override
         public boolean f(com.google.gwt.user.client.Event event) {
           preventClickEvent |= !mouseClick(e, GqEvent.create(event));
@@ -169,7 +222,7 @@ public abstract class MousePlugin extends UiPlugin {
 
     if (started) {
       event.getOriginalEvent().preventDefault();
-      return mouseDrag(element, event);
+      return drag(element, event);
     }
 
     if (delayConditionMet() && distanceConditionMet(event)) {
@@ -204,6 +257,9 @@ public abstract class MousePlugin extends UiPlugin {
   protected boolean mouseUp(Element element, GqEvent event) {
 
     unbindOtherEvents();
+    // run the pending drag, so as mouseStop is called after the last position is applied
+    cancelDragFrame();
+    flushDrag(element);
     if (started) {
       started = false;
       preventClickEvent = event.getCurrentEventTarget() == startEvent.getCurrentEventTarget();
@@ -213,8 +269,48 @@ public abstract class MousePlugin extends UiPlugin {
     return true;
   }
 
+  /**
+   * Call mouseDrag, or schedule it for the next animation frame when drag calls are coalesced.
+   */
+  private boolean drag(final Element element, GqEvent event) {
+    if (!options.getCoalesceDrag()) {
+      return mouseDrag(element, event);
+    }
+    // events are already copies, so we can keep the latest one until the frame runs
+    pendingDrag = event;
+    if (dragFrame == null) {
+      dragFrame = AnimationScheduler.get().requestAnimationFrame(new AnimationCallback() {
+        public void execute(double timestamp) {
+          dragFrame = null;
+          flushDrag(element);
+        }
+      });
+    }
+    return true;
+  }
+
+  private void flushDrag(Element element) {
+    GqEvent event = pendingDrag;
+    pendingDrag = null;
+    if (event != null && started) {
+      mouseDrag(element, event);
+    }
+  }
+
+  private void cancelDragFrame() {
+    if (dragFrame != null) {
+      dragFrame.cancel();
+      dragFrame = null;
+    }
+  }
+
   private void bindOtherEvents(final Element element) {
 
+    if (pointerEventsUsed) {
+      bindPointerEvents(element);
+      return;
+    }
+
     int moveEvent = touchSupported ? Event.ONTOUCHMOVE : Event.ONMOUSEMOVE;
 
     int endEvents = touchSupported ? Event.ONTOUCHEND : Event.ONMOUSEUP;
@@ -246,6 +342,56 @@ public abstract class MousePlugin extends UiPlugin {
     }
   }
 
+  private void bindPointerEvents(final Element element) {
+    final int pointerId = getPointerId(startEvent);
+    // pointer events are retargeted to the element while captured, but they still bubble
+    setPointerCapture(element, pointerId);
+
+    String ns = "." + getPluginName();
+    $(document).as(Events).bind("pointermove" + ns, null, new Function() {
+      @Override
+      public boolean f(com.google.gwt.user.client.Event e) {
+        if (getPointerId(e) != pointerId) {
+          return true;
+        }
+        mouseMove(element, (GqEvent) GqEvent.create(e));
+        return false;
+      }
+    }).bind("pointerup" + ns + " pointercancel" + ns, null, new Function() {
+      @Override
+      public boolean f(com.google.gwt.user.client.Event e) {
+        if (getPointerId(e) != pointerId) {
+          return true;
+        }
+        releasePointerCapture(element, pointerId);
+        mouseUp(element, (GqEvent) GqEvent.create(e));
+        return false;
+      }
+    });
+  }
+
+  private static native boolean isPrimary(Event e) /*-{
+    return e.isPrimary !== false;
+  }-*/;
+
+  private static native int getPointerId(Event e) /*-{
+    return e.pointerId || 0;
+  }-*/;
+
+  private static native void setPointerCapture(Element e, int pointerId) /*-{
+    try {
+      e.setPointerCapture(pointerId);
+    } catch (ignore) {
+    }
+  }-*/;
+
+  private static native void releasePointerCapture(Element e, int pointerId) /*-{
+    try {
+      e.releasePointerCapture(pointerId);
+    } catch (ignore) {
+    }
+  }-*/;
+
   private boolean delayConditionMet() {
 
     if (mouseUpDuration == null) {
@@ -298,6 +444,11 @@ public abstract class MousePlugin extends UiPlugin {
   }
 
   private void unbindOtherEvents() {
+    if (pointerEventsUsed) {
+      String ns = "." + getPluginName();
+      $(document).as(Events).unbind("pointermove" + ns + " pointerup" + ns + " pointercancel" + ns);
+      return;
+    }
     int events =
         touchSupported ? Event.ONTOUCHCANCEL | Event.ONTOUCHEND | Event.ONTOUCHMOVE
             : Event.ONMOUSEUP | Event.ONMOUSEMOVE;
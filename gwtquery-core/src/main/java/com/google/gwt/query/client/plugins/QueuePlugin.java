@@ -81,6 +81,11 @@ public class QueuePlugin<T extends QueuePlugin<?>> extends GQuery {
     super(gq);
   }
 
+  @Override
+  protected boolean isReusableView() {
+    return getClass() == QueuePlugin.class;
+  }
+
   /**
    * remove all queued functions from the effects queue.
    */
@@ -388,9 +393,9 @@ public class QueuePlugin<T extends QueuePlugin<?>> extends GQuery {
       if (f != null) {
         if (f instanceof Function) {
           // pass jumpToEnd to Animation.onCancel() via the element's data object
-          $(elem).data(JUMP_TO_END, jumpToEnd);
+          dataBoolean(elem, JUMP_TO_END, jumpToEnd);
           ((Function) f).cancel(elem);
-          $(elem).removeData(JUMP_TO_END);
+          removeData(elem, JUMP_TO_END);
         }
         dequeueIfNotDoneYet(elem, name, f);
       }
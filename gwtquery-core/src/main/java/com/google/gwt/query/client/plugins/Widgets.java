@@ -62,6 +62,11 @@ public class Widgets extends QueuePlugin<Widgets> {
     super(gq);
   }
 
+  @Override
+  protected boolean isReusableView() {
+    return getClass() == Widgets.class;
+  }
+
   /**
    * Try to create a widget using the given factory and the given options for
    * each element of the query. Returns a new gquery set of elements with the
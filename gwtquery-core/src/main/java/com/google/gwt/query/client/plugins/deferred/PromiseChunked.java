@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.query.client.plugins.deferred;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.RepeatingCommand;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.query.client.Function;
+import com.google.gwt.query.client.plugins.deferred.Deferred.DeferredPromiseImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class used to run a Function over a large set of elements in time-sliced
+ * chunks, so as the UI thread is not blocked until all of them have been processed.
+ *
+ * Chunks are run when the browser is idle using <code>requestIdleCallback</code>, or
+ * through the GWT Scheduler in browsers which do not support it. Each chunk processes
+ * elements until the time budget is exhausted, then the promise is notified with the
+ * number of processed elements and the total. When all elements have been processed the
+ * promise is resolved with the list of non null values returned by the function, and it is
+ * rejected with the exception thrown if the function fails.
+ * <pre>
+ *    $(".cell").eachAsync(new Function() {
+ *      public void f(Element e) {
+ *        ...
+ *      }
+ *    }).progress(new Function() {
+ *      public void f() {
+ *        int done = arguments(0), total = arguments(1);
+ *      }
+ *    }).done(new Function() {
+ *      public void f() {
+ *        List&lt;?&gt; values = arguments(0);
+ *      }
+ *    });
+ * </pre>
+ */
+public class PromiseChunked extends DeferredPromiseImpl implements RepeatingCommand {
+
+  /**
+   * Default time in milliseconds spent in each chunk.
+   */
+  public static final int DEFAULT_BUDGET = 8;
+
+  // Maximum time to wait for an idle period before forcing the next chunk
+  private static final int IDLE_TIMEOUT = 100;
+
+  private static final boolean hasIdleCallback = hasIdleCallback();
+
+  private static native boolean hasIdleCallback() /*-{
+    return typeof $wnd.requestIdleCallback == 'function';
+  }-*/;
+
+  private final int budget;
+  private final Element[] elements;
+  private final Function function;
+  private int index;
+  private final List<Object> results;
+
+  /**
+   * Create a promise which runs the function over all elements.
+   *
+   * @param elements the elements to process
+   * @param budget the maximum time in milliseconds to spend in each chunk
+   * @param function the function to run for each element
+   * @param collect whether the values returned by the function are collected
+   */
+  public PromiseChunked(Element[] elements, int budget, Function function, boolean collect) {
+    this.elements = elements;
+    this.budget = Math.max(1, budget);
+    this.function = function;
+    this.results = collect ? new ArrayList<Object>() : null;
+    if (elements.length == 0) {
+      dfd.resolve(results);
+    } else {
+      schedule();
+    }
+  }
+
+  /**
+   * Run one chunk, it is called by the GWT Scheduler.
+   */
+  public boolean execute() {
+    return run(budget);
+  }
+
+  private boolean run(double available) {
+    double deadline = Duration.currentTimeMillis() + Math.min(budget, available);
+    try {
+      // Process at least one element per chunk, so as we always progress
+      do {
+        Object ret = function.f(elements[index], index);
+        if (results != null && ret != null) {
+          results.add(ret);
+        }
+      } while (++index < elements.length && Duration.currentTimeMillis() < deadline);
+    } catch (Exception e) {
+      dfd.reject(e);
+      return false;
+    }
+    dfd.notify(index, elements.length);
+    if (index < elements.length) {
+      return true;
+    }
+    dfd.resolve(results);
+    return false;
+  }
+
+  private void schedule() {
+    if (hasIdleCallback) {
+      requestIdleCallback(IDLE_TIMEOUT);
+    } else {
+      Scheduler.get().scheduleFixedDelay(this, 1);
+    }
+  }
+
+  private void onIdle(double timeRemaining, boolean didTimeout) {
+    // When the timeout fires there is no idle time left, but we still run one chunk
+    if (run(didTimeout ? budget : timeRemaining)) {
+      schedule();
+    }
+  }
+
+  private native void requestIdleCallback(int timeout) /*-{
+    var that = this;
+    $wnd.requestIdleCallback($entry(function(deadline) {
+      that.@com.google.gwt.query.client.plugins.deferred.PromiseChunked::onIdle(*)(
+          deadline.timeRemaining(), !!deadline.didTimeout);
+    }), {timeout: timeout});
+  }-*/;
+}
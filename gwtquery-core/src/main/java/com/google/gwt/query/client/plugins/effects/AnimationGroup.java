@@ -0,0 +1,280 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.query.client.plugins.effects;
+
+import static com.google.gwt.query.client.GQuery.$;
+
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.query.client.GQuery;
+import com.google.gwt.query.client.Promise;
+import com.google.gwt.query.client.plugins.Effects;
+import com.google.gwt.query.client.plugins.Effects.GQAnimation;
+import com.google.gwt.query.client.plugins.QueuePlugin;
+import com.google.gwt.query.client.plugins.deferred.Deferred;
+import com.google.gwt.query.client.plugins.effects.PropertiesAnimation.EasingCurve;
+import com.google.gwt.query.client.plugins.effects.PropertiesAnimation.FxTarget;
+
+/**
+ * Animation of a set of elements with one shared timeline, where each element starts after its
+ * own delay, like when staggering the items of a list.
+ *
+ * Delays are computed up front, the start values of all the elements are read in one pass, and
+ * the group completes as a single promise. It waits in the effects queue of every element, and
+ * starts once all of them reach it. Stopping any of the elements stops the whole group.
+ * <pre>
+ *   $("li").as(Effects).animateGroup("opacity: 1, top: '-=10px'", 300, 30, EasingCurve.easeOut)
+ *     .done(...);
+ * </pre>
+ */
+public class AnimationGroup extends GQAnimation {
+
+  private final Element[] elements;
+  private final Effects[] gs;
+  private final int[] delays;
+  private final boolean[] arrived;
+  private Fx[][] effects;
+  private int duration;
+  private int total;
+  private int pending;
+  private int hint;
+  private boolean stopped;
+  private final Deferred dfd = new Deferred();
+
+  public AnimationGroup(Element... elements) {
+    this.elements = elements;
+    gs = new Effects[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      gs[i] = $(elements[i]).as(Effects.Effects);
+    }
+    g = $(elements).as(Effects.Effects);
+    delays = new int[elements.length];
+    arrived = new boolean[elements.length];
+    pending = elements.length;
+    easing = EasingCurve.swing;
+  }
+
+  /**
+   * Start each element the given milliseconds after the previous one.
+   */
+  public AnimationGroup setStagger(int stagger) {
+    for (int i = 0; i < delays.length; i++) {
+      delays[i] = i * Math.max(0, stagger);
+    }
+    return this;
+  }
+
+  /**
+   * Set the delay in milliseconds of each element, missing delays are set to 0.
+   */
+  public AnimationGroup setDelays(int... delays) {
+    for (int i = 0; i < this.delays.length; i++) {
+      this.delays[i] = i < delays.length ? Math.max(0, delays[i]) : 0;
+    }
+    return this;
+  }
+
+  /**
+   * Set the duration of the animation of each element.
+   */
+  public AnimationGroup setDuration(int duration) {
+    this.duration = Math.max(0, duration);
+    return this;
+  }
+
+  /**
+   * Return the duration of the whole group, including the delays.
+   */
+  public int getTotalDuration() {
+    int ret = 0;
+    for (int d : delays) {
+      ret = Math.max(ret, d);
+    }
+    return ret + duration;
+  }
+
+  /**
+   * Return a promise resolved when the group completes, or rejected when it is stopped without
+   * jumping to the end.
+   */
+  public Promise promise() {
+    return dfd.promise();
+  }
+
+  /**
+   * Called when the element reaches the group in its effects queue, the group starts when all
+   * the elements have reached it.
+   */
+  public void arrive(Element e) {
+    int i = indexOf(e);
+    if (i < 0) {
+      return;
+    }
+    if (stopped) {
+      gs[i].dequeue();
+      return;
+    }
+    if (!arrived[i]) {
+      arrived[i] = true;
+      if (--pending == 0) {
+        total = getTotalDuration();
+        run(total);
+      }
+    }
+  }
+
+  /**
+   * Called when the element is stopped, it stops the whole group. When jumping to the end before
+   * the group has started, the final values are set at once and the group completes.
+   */
+  public void stop(Element e) {
+    if (isRunning()) {
+      cancel();
+    } else if (!stopped && pending > 0) {
+      // elements which have not reached the group yet skip it when they do
+      stopped = true;
+      if (GQuery.dataBoolean(e, QueuePlugin.JUMP_TO_END)) {
+        total = getTotalDuration();
+        onStart();
+        onComplete();
+      } else {
+        dequeue();
+        dfd.reject(g);
+      }
+    }
+  }
+
+  private int indexOf(Element e) {
+    // elements usually reach the group in order
+    if (hint < elements.length && elements[hint] == e) {
+      return hint++;
+    }
+    for (int i = 0; i < elements.length; i++) {
+      if (elements[i] == e) {
+        hint = i + 1;
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public void onStart() {
+    FxTarget[] targets = PropertiesAnimation.computeFxTargets(prps);
+    effects = new Fx[elements.length][];
+    boolean[] resize = new boolean[elements.length];
+    boolean[] move = new boolean[elements.length];
+
+    // Read the visibility of all the elements before modifying any of them
+    boolean[] hidden = new boolean[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      hidden[i] = !gs[i].isVisible();
+    }
+
+    // Read start values
+    Fx[] fxs = new Fx[targets.length];
+    for (int i = 0; i < elements.length; i++) {
+      int n = 0;
+      for (FxTarget target : targets) {
+        Fx fx = PropertiesAnimation.computeFxProp(elements[i], target, hidden[i]);
+        if (fx != null) {
+          fxs[n++] = fx;
+          resize[i] = resize[i] || "height".equals(target.key) || "width".equals(target.key);
+          move[i] = move[i] || "top".equals(target.key) || "left".equals(target.key);
+        }
+      }
+      effects[i] = new Fx[n];
+      System.arraycopy(fxs, 0, effects[i], 0, n);
+    }
+
+    // Then prepare the elements
+    for (int i = 0; i < elements.length; i++) {
+      gs[i].saveCssAttrs(PropertiesAnimation.ATTRS_TO_SAVE);
+      if (resize[i]) {
+        gs[i].css("overflow", "hidden");
+      }
+      if (move[i] && !gs[i].css("position", true).matches("absolute|relative|fixed")) {
+        gs[i].css("position", "relative");
+      }
+    }
+    super.onStart();
+  }
+
+  @Override
+  protected double interpolate(double progress) {
+    // easing is applied to the progress of each element
+    return progress;
+  }
+
+  @Override
+  public void onUpdate(double progress) {
+    if (effects == null) {
+      return;
+    }
+    double now = progress * total;
+    for (int i = 0; i < elements.length; i++) {
+      double local = progress >= 1 ? 1 : duration == 0 ? (now >= delays[i] ? 1 : 0)
+          : Math.max(0, Math.min(1, (now - delays[i]) / duration));
+      double eased = easing.interpolate(local);
+      for (Fx fx : effects[i]) {
+        fx.applyValue(gs[i], eased);
+      }
+    }
+  }
+
+  @Override
+  public void onComplete() {
+    super.onComplete();
+    for (int i = 0; effects != null && i < elements.length; i++) {
+      for (Fx fx : effects[i]) {
+        if ("hide".equals(fx.value)) {
+          gs[i].hide();
+          gs[i].restoreCssAttrs(fx.cssprop);
+        } else if ("show".equals(fx.value)) {
+          gs[i].show();
+          gs[i].restoreCssAttrs(fx.cssprop);
+        }
+      }
+      gs[i].restoreCssAttrs(PropertiesAnimation.ATTRS_TO_SAVE);
+      gs[i].each(funcs);
+    }
+    dequeue();
+    dfd.resolve(g);
+  }
+
+  @Override
+  protected void onCancel() {
+    for (Element e : elements) {
+      if (GQuery.dataBoolean(e, QueuePlugin.JUMP_TO_END)) {
+        onComplete();
+        return;
+      }
+    }
+    for (Effects el : gs) {
+      el.restoreCssAttrs(PropertiesAnimation.ATTRS_TO_SAVE);
+    }
+    dequeue();
+    dfd.reject(g);
+  }
+
+  private void dequeue() {
+    for (int i = 0; i < elements.length; i++) {
+      if (arrived[i]) {
+        arrived[i] = false;
+        gs[i].dequeue();
+      }
+    }
+  }
+}
@@ -55,6 +55,9 @@ public class ClipAnimation extends PropertiesAnimation {
   private Direction direction;
   private GQuery back = Effects.$();
   private Action currentAction;
+  // Sizes of the element, read before any animation updates the document in each frame
+  private int width;
+  private int height;
 
   @Override
   public GQAnimation setProperties(Properties p) {
@@ -123,10 +126,19 @@ public class ClipAnimation extends PropertiesAnimation {
     g.css("visivility", "visible");
 
     // Set the initial clip viewport before showing the element
+    beforeUpdate(0);
     onUpdate(0);
     g.show();
   }
 
+  @Override
+  protected void beforeUpdate(double progress) {
+    if (action != null) {
+      width = g.outerWidth();
+      height = g.outerHeight();
+    }
+  }
+
   @Override
   public void onUpdate(double progress) {
     super.onUpdate(progress);
@@ -136,8 +148,8 @@ public class ClipAnimation extends PropertiesAnimation {
     if (currentAction == Action.HIDE) {
       progress = 1 - progress;
     }
-    int w = g.outerWidth();
-    int h = g.outerHeight();
+    int w = width;
+    int h = height;
     int top = 0;
     int left = 0;
     int right = w;
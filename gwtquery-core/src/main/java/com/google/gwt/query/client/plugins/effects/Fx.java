@@ -18,11 +18,13 @@ package com.google.gwt.query.client.plugins.effects;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.query.client.GQuery;
 import com.google.gwt.query.client.css.BorderColorProperty;
-import com.google.gwt.query.client.css.RGBColor;
 import com.google.gwt.query.client.js.JsNamedArray;
+import com.google.gwt.query.client.js.JsUtils;
 import com.google.gwt.regexp.shared.MatchResult;
 import com.google.gwt.regexp.shared.RegExp;
 
+import java.util.Arrays;
+
 /**
  * A pojo to store effect values.
  */
@@ -72,27 +74,32 @@ public class Fx {
           BorderColorProperty.BORDER_LEFT_COLOR_PROPERTY,
           BorderColorProperty.BORDER_RIGHT_COLOR_PROPERTY};
 
-      private JsNamedArray<int[]> startColors;
+      private int[][] startColors = new int[borderColorProperties.length][];
+      private int[] lastColors = {-1, -1, -1, -1};
 
       public BorderColorFx(Element e, String endColorString) {
+        this(e, parse(endColorString));
+      }
 
-        endColor = parseColor(endColorString);
-        startColors = JsNamedArray.create();
+      BorderColorFx(Element e, int[] endColor) {
+
+        this.endColor = endColor;
 
         GQuery g = GQuery.$(e);
 
-        for (String border : borderColorProperties) {
-          int[] startColor = parseColor(g.css(border, true));
-          startColors.put(border, startColor);
+        for (int i = 0; i < borderColorProperties.length; i++) {
+          startColors[i] = parseColor(g.css(borderColorProperties[i], true));
         }
       }
 
       @Override
       public void applyValue(GQuery g, double progress) {
-        for (String border : borderColorProperties) {
-          startColor = startColors.get(border);
-          cssprop = border;
-          super.applyValue(g, progress);
+        for (int i = 0; i < borderColorProperties.length; i++) {
+          int color = interpolate(startColors[i], endColor, progress);
+          if (color != lastColors[i]) {
+            lastColors[i] = color;
+            write(g, borderColorProperties[i], rgb(color));
+          }
         }
       }
     }
@@ -158,12 +165,18 @@ public class Fx {
 
     protected int[] endColor;
     protected int[] startColor;
+    // Last color written, so as it is not written again when it does not change between frames
+    private int lastColor = -1;
 
     ColorFx(String attr, String startColorString, String endColorString) {
-      assert startColorString != null && endColorString != null;
+      this(attr, startColorString, parse(endColorString));
+    }
+
+    ColorFx(String attr, String startColorString, int[] endColor) {
+      assert startColorString != null;
       this.cssprop = attr;
       startColor = parseColor(startColorString);
-      endColor = parseColor(endColorString);
+      this.endColor = endColor;
     }
 
     private ColorFx() {
@@ -171,26 +184,49 @@ public class Fx {
 
     @Override
     public void applyValue(GQuery g, double progress) {
-      int[] result = new int[3];
+      int color = interpolate(startColor, endColor, progress);
+      if (color != lastColor) {
+        lastColor = color;
+        write(g, cssprop, rgb(color));
+      }
+    }
+
+    /**
+     * Return the color at the given progress, quantized to integer components and packed in an
+     * int like 0xRRGGBB.
+     */
+    static int interpolate(int[] from, int[] to, double progress) {
+      int ret = 0;
       for (int i = 0; i < 3; i++) {
-        int composante = (int) Math.round(startColor[i] + progress
-            * (endColor[i] - startColor[i]));
-        result[i] = Math.max(0, Math.min(255, composante));
+        int composante = (int) Math.round(from[i] + progress * (to[i] - from[i]));
+        ret = ret << 8 | Math.max(0, Math.min(255, composante));
       }
-      String value = RGBColor.rgb(result[0], result[1], result[2]).getCssName();
+      return ret;
+    }
 
-      g.css(cssprop, value);
+    static String rgb(int color) {
+      return "rgb(" + (color >> 16 & 255) + "," + (color >> 8 & 255) + "," + (color & 255) + ")";
     }
 
+    /**
+     * Return a copy of the end color, which is shared by the effects of all the animated elements.
+     */
     public int[] getEndColor() {
-      return endColor;
+      return Arrays.copyOf(endColor, endColor.length);
     }
 
+    /**
+     * Return a copy of the start color.
+     */
     public int[] getStartColor() {
-      return startColor;
+      return Arrays.copyOf(startColor, startColor.length);
     }
 
     protected int[] parseColor(String color) {
+      return parse(color);
+    }
+
+    static int[] parse(String color) {
       MatchResult matches = REGEX_RGB_COLOR_PATTERN.exec(color);
       if (matches != null) {
         return parseRGBColor(matches);
@@ -204,7 +240,7 @@ public class Fx {
       return parseLiteralColor(color);
     }
 
-    private int[] parseHexColor(MatchResult matches) {
+    private static int[] parseHexColor(MatchResult matches) {
       assert matches.getGroupCount() == 2;
       int[] result = new int[3];
 
@@ -223,11 +259,11 @@ public class Fx {
       return result;
     }
 
-    private int[] parseLiteralColor(String color) {
+    private static int[] parseLiteralColor(String color) {
       return htmlColorToRgb.get(color);
     }
 
-    private int[] parseRGBColor(MatchResult matches) {
+    private static int[] parseRGBColor(MatchResult matches) {
       assert matches.getGroupCount() == 4;
       int[] result = new int[3];
 
@@ -247,12 +283,26 @@ public class Fx {
     }
   }
 
+  // Properties which can be written in the element style without normalization
+  private static final RegExp REGEX_DIRECT_PROPERTIES = RegExp.compile("^((min|max)?(Width|Height)"
+      + "|width|height|top|left|right|bottom|(margin|padding)(Top|Right|Bottom|Left)?"
+      + "|opacity|fontSize|letterSpacing|wordSpacing|textIndent"
+      + "|(background|outline|border(Top|Right|Bottom|Left)?)?[cC]olor)$");
+
+  // Camelized names of the properties written directly, or empty for the rest
+  private static JsNamedArray<String> directNames;
+
+  // Non pixel values are rounded to this precision
+  private static final double PRECISION = 1000;
+
   public String cssprop;
   public double end;
   public double start;
   public String unit;
   public String value;
   public String attribute;
+  // Last value written, so as it is not written again when it does not change between frames
+  private double lastValue = Double.NaN;
 
   Fx() {
     end = start = -1;
@@ -269,15 +319,49 @@ public class Fx {
 
   public void applyValue(GQuery g, double progress) {
     double ret = start + ((end - start) * progress);
-    String val = ("px".equals(unit) ? ((int) ret) : ret) + unit;
+    boolean px = "px".equals(unit);
+    // Quantize the value, so as nothing is formatted nor written when it does not change
+    ret = px ? (int) ret : Math.round(ret * PRECISION) / PRECISION;
+    if (ret == lastValue) {
+      return;
+    }
+    lastValue = ret;
     if ("scrollTop".equals(cssprop)) {
       g.scrollTop((int) ret);
     } else if ("scrollLeft".equals(cssprop)) {
       g.scrollLeft((int) ret);
-    } else if (attribute != null) {
-      g.attr(attribute, val);
     } else {
-      g.css(cssprop, val);
+      String val = (px ? String.valueOf((int) ret) : String.valueOf(ret)) + unit;
+      if (attribute != null) {
+        g.attr(attribute, val);
+      } else {
+        write(g, cssprop, val);
+      }
+    }
+  }
+
+  /**
+   * Set a style property in all the elements. Known properties are written directly in the
+   * element style, skipping the normalization done by <code>css()</code> in each frame.
+   */
+  protected static void write(GQuery g, String prop, String val) {
+    if (directNames == null) {
+      directNames = JsNamedArray.create();
+    }
+    String name = directNames.get(prop);
+    if (name == null) {
+      name = JsUtils.camelize(prop);
+      // old IE needs the opacity workaround done by css()
+      name = REGEX_DIRECT_PROPERTIES.test(name) && !("opacity".equals(name)
+          && GQuery.browser.msie) ? name : "";
+      directNames.put(prop, name);
+    }
+    if (name.isEmpty()) {
+      g.css(prop, val);
+    } else {
+      for (Element e : g.elements()) {
+        e.getStyle().setProperty(name, val);
+      }
     }
   }
 
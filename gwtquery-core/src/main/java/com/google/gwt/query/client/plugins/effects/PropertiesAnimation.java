@@ -17,6 +17,7 @@ package com.google.gwt.query.client.plugins.effects;
 
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.query.client.GQuery;
+import com.google.gwt.query.client.Properties;
 import com.google.gwt.query.client.js.JsObjectArray;
 import com.google.gwt.query.client.plugins.Effects;
 import com.google.gwt.query.client.plugins.Effects.GQAnimation;
@@ -167,23 +168,89 @@ public class PropertiesAnimation extends GQAnimation {
 
   private static final RegExp REGEX_BACKGROUNDCOLOR = RegExp.compile("^backgroundcolor$", "i");
 
+  /**
+   * The target side of an animated property, its value parsed once so as it can be shared by
+   * the animations of all the elements animated with the same properties. Only start values are
+   * read for each element.
+   */
+  public static class FxTarget {
+    public final String key;
+    public final String value;
+    // Attribute name for keys starting with $
+    final String attribute;
+    final boolean nonPixel;
+    final boolean nonPixelAttribute;
+    final boolean color;
+    final boolean borderColor;
+    final boolean backgroundColor;
+    final int[] endColor;
+    // Relative operator: 1 for +=, -1 for -=, 0 for absolute values
+    final int operator;
+    // Whether the value is a number with an optional operator and unit
+    final boolean numeric;
+    final double end;
+    final String unit;
+
+    public FxTarget(String key, String value) {
+      this.key = key;
+      this.value = value;
+      attribute = key.startsWith("$") ? key.substring(1).toLowerCase() : null;
+      nonPixel = REGEX_NON_PIXEL_ATTRS.test(key);
+      nonPixelAttribute = attribute != null && REGEX_NON_PIXEL_ATTRS.test(attribute);
+      color = REGEX_COLOR_ATTR.test(key);
+      borderColor = color && REGEX_BORDERCOLOR.test(key);
+      backgroundColor = color && REGEX_BACKGROUNDCOLOR.test(key);
+      endColor = color && value != null ? ColorFx.parse(value) : null;
+      MatchResult parts = value == null ? null : REGEX_SYMBOL_NUMBER_UNIT.exec(value);
+      numeric = parts != null;
+      if (numeric) {
+        String p1 = parts.getGroup(1);
+        String p3 = parts.getGroup(3);
+        operator = p1 == null || p1.isEmpty() ? 0 : "-=".equals(p1) ? -1 : 1;
+        end = Double.parseDouble(parts.getGroup(2));
+        unit = p3 == null ? "" : p3;
+      } else {
+        operator = 0;
+        end = 0;
+        unit = "";
+      }
+    }
+  }
+
+  /**
+   * Parse the target values of the properties, so as they can be shared by the animations of
+   * all the elements animated with them.
+   */
+  public static FxTarget[] computeFxTargets(Properties p) {
+    String[] keys = p.keys();
+    FxTarget[] ret = new FxTarget[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      ret[i] = new FxTarget(keys[i], p.getStr(keys[i]));
+    }
+    return ret;
+  }
+
   public static Fx computeFxProp(Element e, String key, String val,
       boolean hidden) {
+    return computeFxProp(e, new FxTarget(key, val), hidden);
+  }
 
-    if (REGEX_COLOR_ATTR.test(key)) {
-      return computeFxColorProp(e, key, val);
+  public static Fx computeFxProp(Element e, FxTarget target, boolean hidden) {
+    if (target.color) {
+      return computeFxColorProp(e, target);
     }
-    return computeFxNumericProp(e, key, val, hidden);
+    return computeFxNumericProp(e, target, hidden);
   }
 
-  private static Fx computeFxColorProp(Element e, String key, String val) {
+  private static Fx computeFxColorProp(Element e, FxTarget target) {
+    String key = target.key;
 
-    if (REGEX_BORDERCOLOR.test(key)) {
-      return new BorderColorFx(e, val);
+    if (target.borderColor) {
+      return new BorderColorFx(e, target.endColor);
     }
 
     String initialColor = null;
-    if (REGEX_BACKGROUNDCOLOR.test(key)) {
+    if (target.backgroundColor) {
       // find the first parent having a background-color value (other than
       // transparent)
       Element current = e;
@@ -203,13 +270,19 @@ public class PropertiesAnimation extends GQAnimation {
       initialColor = GQuery.$(e).css(key, true);
     }
 
-    return new ColorFx(key, initialColor, val);
+    return new ColorFx(key, initialColor, target.endColor);
   }
 
   public static Fx computeFxNumericProp(Element e, String key, String val,
       boolean hidden) {
+    return computeFxNumericProp(e, new FxTarget(key, val), hidden);
+  }
+
+  private static Fx computeFxNumericProp(Element e, FxTarget target, boolean hidden) {
 
     GQuery g = Effects.$(e);
+    String key = target.key;
+    String val = target.value;
     String unit = "";
     if ("toggle".equals(val)) {
       val = hidden ? "show" : "hide";
@@ -226,8 +299,9 @@ public class PropertiesAnimation extends GQAnimation {
     // If key starts with $ we animate node attributes, otherwise css properties
     double cur;
     String rkey = null;
-    if (key.startsWith("$")) {
-      rkey = key.substring(1).toLowerCase();
+    boolean nonPixel = target.nonPixel;
+    if (target.attribute != null) {
+      rkey = target.attribute;
       String attr = g.attr(rkey);
       MatchResult parts = REGEX_NUMBER_UNIT.exec(attr);
       if (parts != null) {
@@ -238,6 +312,7 @@ public class PropertiesAnimation extends GQAnimation {
       } else {
         cur = g.cur(key, true);
         key = rkey;
+        nonPixel = target.nonPixelAttribute;
       }
     } else {
       cur = g.cur(key, true);
@@ -248,36 +323,28 @@ public class PropertiesAnimation extends GQAnimation {
     if ("show".equals(val)) {
       g.saveCssAttrs(key);
       start = 0;
-      unit = REGEX_NON_PIXEL_ATTRS.test(key) ? "" : "px";
+      unit = nonPixel ? "" : "px";
     } else if ("hide".equals(val)) {
       g.saveCssAttrs(key);
       end = 0;
-      unit = REGEX_NON_PIXEL_ATTRS.test(key) ? "" : "px";
-    } else {
-      MatchResult parts = REGEX_SYMBOL_NUMBER_UNIT.exec(val);
-
-      if (parts != null) {
-        String p1 = parts.getGroup(1);
-        String p2 = parts.getGroup(2);
-        String p3 = parts.getGroup(3);
-        end = Double.parseDouble(p2);
-
-        if (rkey == null) {
-          unit = REGEX_NON_PIXEL_ATTRS.test(key) ? "" : //
-              p3 == null || p3.isEmpty() ? "px" : p3;
-          if (!"px".equals(unit)) {
-            double to = end == 0 ? 1 : end;
-            g.css(key, to + unit);
-            start = to * start / g.cur(key, true);
-            g.css(key, start + unit);
-          }
-        } else if (p3 != null && !p3.isEmpty()) {
-          unit = p3;
+      unit = nonPixel ? "" : "px";
+    } else if (target.numeric) {
+      end = target.end;
+
+      if (rkey == null) {
+        unit = nonPixel ? "" : target.unit.isEmpty() ? "px" : target.unit;
+        if (!"px".equals(unit)) {
+          double to = end == 0 ? 1 : end;
+          g.css(key, to + unit);
+          start = to * start / g.cur(key, true);
+          g.css(key, start + unit);
         }
+      } else if (!target.unit.isEmpty()) {
+        unit = target.unit;
+      }
 
-        if (p1 != null && !p1.isEmpty()) {
-          end = (("-=".equals(p1) ? -1 : 1) * end) + start;
-        }
+      if (target.operator != 0) {
+        end = target.operator * end + start;
       }
     }
 
@@ -286,10 +353,27 @@ public class PropertiesAnimation extends GQAnimation {
 
   protected JsObjectArray<Fx> effects;
 
+  // Targets of the properties, parsed when the animation starts unless they are set
+  private FxTarget[] targets;
+
+  @Override
+  public GQAnimation setProperties(Properties properties) {
+    targets = null;
+    return super.setProperties(properties);
+  }
+
+  /**
+   * Set the targets parsed from the properties of this animation, so as animations of many
+   * elements with the same properties parse them once.
+   */
+  public PropertiesAnimation setTargets(FxTarget[] targets) {
+    this.targets = targets;
+    return this;
+  }
+
   @Override
   public void onCancel() {
-    Boolean jumpToEnd = Effects.$(e).data(Effects.JUMP_TO_END, Boolean.class);
-    if (jumpToEnd != null && jumpToEnd) {
+    if (GQuery.dataBoolean(e, Effects.JUMP_TO_END)) {
       onComplete();
     } else {
       g.dequeue();
@@ -323,9 +407,12 @@ public class PropertiesAnimation extends GQAnimation {
     boolean hidden = !g.isVisible();
     Fx fx;
     // g.show();
-    for (String key : prps.keys()) {
-      String val = prps.getStr(key);
-      if ((fx = getFx(e, key, val, hidden)) != null) {
+    if (targets == null) {
+      targets = computeFxTargets(prps);
+    }
+    for (FxTarget target : targets) {
+      String key = target.key;
+      if ((fx = getFx(e, target, hidden)) != null) {
         effects.add(fx);
         resize = resize || "height".equals(key) || "width".equals(key);
         move = move || "top".equals(key) || "left".equals(key);
@@ -341,8 +428,8 @@ public class PropertiesAnimation extends GQAnimation {
     super.onStart();
   }
 
-  protected Fx getFx(Element e, String key, String val, boolean hidden) {
-    return computeFxProp(e, key, val, hidden);
+  protected Fx getFx(Element e, FxTarget target, boolean hidden) {
+    return computeFxProp(e, target, hidden);
   }
 
   @Override
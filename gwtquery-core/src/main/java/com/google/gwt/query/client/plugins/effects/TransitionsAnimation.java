@@ -207,7 +207,7 @@ public class TransitionsAnimation extends PropertiesAnimation {
 
   protected Transitions t;
   protected int delay = 0;
-  private String oldTransitionValue;
+  protected String oldTransitionValue;
 
   @Override
   public GQAnimation setProperties(Properties p) {
@@ -240,8 +240,9 @@ public class TransitionsAnimation extends PropertiesAnimation {
   }
 
   @Override
-  protected Fx getFx(Element e, String key, String val, boolean hidden) {
-    return Transitions.invalidTransitionNamesRegex.test(key) ? null : computeFxProp(e, key, val, hidden);
+  protected Fx getFx(Element e, FxTarget target, boolean hidden) {
+    return Transitions.invalidTransitionNamesRegex.test(target.key) ? null
+        : computeFxProp(e, target.key, target.value, hidden);
   }
 
   @Override
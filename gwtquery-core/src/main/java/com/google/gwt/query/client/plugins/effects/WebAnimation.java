@@ -0,0 +1,182 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.query.client.plugins.effects;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.query.client.GQuery;
+import com.google.gwt.query.client.Properties;
+import com.google.gwt.query.client.plugins.Effects;
+import com.google.gwt.query.client.plugins.effects.PropertiesAnimation.EasingCurve;
+import com.google.gwt.query.client.plugins.effects.TransitionsAnimation.TransitionsClipAnimation;
+import com.google.gwt.regexp.shared.RegExp;
+
+/**
+ * Animation of transform and opacity properties using the Web Animations API, so as the browser
+ * can run it in the compositor even when the main thread is busy.
+ *
+ * All the transform properties are composed in one transform animation. The final values are
+ * set in the element style before the animation starts, and the queue is dequeued when the
+ * animation finishes.
+ *
+ * It falls back to css3 transitions when the browser does not support Web Animations, or when
+ * other properties or a custom easing are animated. Select it in your module file with:
+ * <pre>
+ *   &lt;set-property name="animation" value="web" /&gt;
+ * </pre>
+ */
+public class WebAnimation extends TransitionsClipAnimation {
+
+  // Properties which can be animated in the compositor, besides transforms, and options
+  private static final RegExp REGEX_COMPOSITOR_PROPS =
+      RegExp.compile("^(opacity|duration|easing|delay|clip-.*)$");
+
+  private JavaScriptObject player;
+  // Properties animated by the player, which are the only ones kept when it is stopped
+  private boolean animatesTransform;
+  private boolean animatesOpacity;
+
+  /**
+   * Return true if the browser supports the Web Animations API.
+   */
+  public static native boolean isSupported() /*-{
+    return !!($doc.documentElement && $doc.documentElement.animate);
+  }-*/;
+
+  /**
+   * Return true if all the properties can be animated in the compositor.
+   */
+  public static boolean isCompositorOnly(Properties p) {
+    for (String key : p.keys()) {
+      if (!REGEX_COMPOSITOR_PROPS.test(key) && !Transform.isTransform(key)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void run(int duration) {
+    if (!isSupported() || !(easing instanceof EasingCurve) || !isCompositorOnly(prps)) {
+      super.run(duration);
+      return;
+    }
+
+    onStart();
+    // Avoid css transitions running behind the animation when setting the final values
+    oldTransitionValue = t.css(Transitions.transition);
+    t.css(Transitions.transition, "none");
+
+    Properties from = getFxProperties(true);
+    Properties to = getFxProperties(false);
+    String fromTransform = null, toTransform = null;
+    String fromOpacity = from.getStr("opacity"), toOpacity = to.getStr("opacity");
+    if (hasTransform(from) || hasTransform(to)) {
+      t.css(from);
+      fromTransform = Transform.getInstance(e).toString();
+      t.css(to);
+      toTransform = Transform.getInstance(e).toString();
+    } else {
+      t.css(to);
+    }
+
+    animatesTransform = toTransform != null;
+    animatesOpacity = toOpacity != null;
+    if (!animatesTransform && !animatesOpacity) {
+      onComplete();
+    } else {
+      player = animate(e, fromTransform, toTransform, fromOpacity, toOpacity, duration, delay,
+          easing.toString());
+    }
+  }
+
+  private static boolean hasTransform(Properties p) {
+    for (String key : p.keys()) {
+      if (Transform.isTransform(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void cancel() {
+    JavaScriptObject a = player;
+    player = null;
+    if (a == null) {
+      super.cancel();
+      return;
+    }
+    boolean jumpToEnd = GQuery.dataBoolean(e, Effects.JUMP_TO_END);
+    if (!jumpToEnd) {
+      // keep the current values, since the final ones are already set in the element
+      freeze(e, animatesTransform, animatesOpacity);
+    }
+    cancel(a);
+    if (!jumpToEnd) {
+      // onComplete restores the transition when jumping to the end, otherwise it is not run
+      t.css(Transitions.transition, oldTransitionValue);
+    }
+    super.cancel();
+    onCancel();
+  }
+
+  private void finished(JavaScriptObject a) {
+    if (player == a) {
+      player = null;
+      onComplete();
+    }
+  }
+
+  private native JavaScriptObject animate(Element e, String fromTransform, String toTransform,
+      String fromOpacity, String toOpacity, int duration, int delay, String easing) /*-{
+    var from = {}, to = {}, self = this;
+    if (toTransform != null) {
+      from.transform = fromTransform;
+      to.transform = toTransform;
+    }
+    if (toOpacity != null) {
+      from.opacity = fromOpacity == null ? $wnd.getComputedStyle(e).opacity : fromOpacity;
+      to.opacity = toOpacity;
+    }
+    var a = e.animate([from, to], {duration: duration, delay: delay, easing: easing,
+        fill: 'backwards'});
+    var done = $entry(function() {
+      self.@com.google.gwt.query.client.plugins.effects.WebAnimation::finished(*)(a);
+    });
+    if (a.finished && a.finished.then) {
+      // the promise is rejected when the animation is cancelled
+      a.finished.then(done, function() {});
+    } else {
+      a.onfinish = done;
+    }
+    return a;
+  }-*/;
+
+  private static native void freeze(Element e, boolean transform, boolean opacity) /*-{
+    var s = $wnd.getComputedStyle(e);
+    if (transform) {
+      e.style.transform = s.transform;
+    }
+    if (opacity) {
+      e.style.opacity = s.opacity;
+    }
+  }-*/;
+
+  private static native void cancel(JavaScriptObject a) /*-{
+    a.cancel();
+  }-*/;
+}
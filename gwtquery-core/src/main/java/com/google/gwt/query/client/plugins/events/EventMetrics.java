@@ -0,0 +1,299 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.query.client.plugins.events;
+
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.query.client.GQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opt-in instrumentation of the handlers bound with gQuery, useful to find out which handlers
+ * cause input latency.
+ *
+ * When enabled, the execution time of each handler is recorded in histograms per event type
+ * and per namespace, and handlers running longer than a threshold are reported with the element
+ * they are bound to and the selector they are delegated to.
+ * <pre>
+ *   EventMetrics.enable(16);
+ *   ...
+ *   for (LongHandler h : EventMetrics.longHandlers()) {
+ *     ...
+ *   }
+ *   EventMetrics.log();
+ * </pre>
+ *
+ * Metrics are global and they are not collected when disabled, which is the default.
+ */
+public class EventMetrics {
+
+  /**
+   * Default time in milliseconds a handler can run before being reported, a frame at 60Hz.
+   */
+  public static final double DEFAULT_THRESHOLD = 16;
+
+  /**
+   * Upper bounds in milliseconds of the histogram buckets, the last bucket is unbounded.
+   */
+  public static final double[] BUCKETS = {1, 2, 4, 8, 16, 32, 64, 128};
+
+  // Only the last reports are kept, so as memory does not grow while enabled
+  private static final int MAX_LONG_HANDLERS = 100;
+
+  /**
+   * Execution times of the handlers of an event type or namespace.
+   */
+  public static class Histogram {
+    public final String name;
+    private int dispatches;
+    private int count;
+    private double total;
+    private double max;
+    private final int[] buckets = new int[BUCKETS.length + 1];
+
+    Histogram(String name) {
+      this.name = name;
+    }
+
+    void add(double millis) {
+      count++;
+      total += millis;
+      max = Math.max(max, millis);
+      int i = 0;
+      while (i < BUCKETS.length && millis > BUCKETS[i]) {
+        i++;
+      }
+      buckets[i]++;
+    }
+
+    /**
+     * Return the number of times the event was dispatched to an element with handlers, it is
+     * only counted in histograms per event type.
+     */
+    public int getDispatches() {
+      return dispatches;
+    }
+
+    /**
+     * Return the number of handlers executed.
+     */
+    public int getCount() {
+      return count;
+    }
+
+    /**
+     * Return the total time in milliseconds spent in handlers.
+     */
+    public double getTotal() {
+      return total;
+    }
+
+    /**
+     * Return the time in milliseconds of the slowest handler.
+     */
+    public double getMax() {
+      return max;
+    }
+
+    /**
+     * Return the average time in milliseconds of the handlers.
+     */
+    public double getMean() {
+      return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * Return the number of handlers executed in each bucket of {@link EventMetrics#BUCKETS}.
+     */
+    public int[] getBuckets() {
+      return buckets.clone();
+    }
+
+    public String toString() {
+      StringBuilder b = new StringBuilder(name.isEmpty() ? "(no namespace)" : name)
+          .append(": ").append(count).append(" handlers");
+      if (dispatches > 0) {
+        b.append(" in ").append(dispatches).append(" dispatches");
+      }
+      b.append(", mean ").append(round(getMean())).append("ms, max ").append(round(max))
+          .append("ms [");
+      for (int i = 0; i < buckets.length; i++) {
+        b.append(i == 0 ? "" : " ").append(i < BUCKETS.length ? "<=" + (int) BUCKETS[i] : ">")
+            .append(":").append(buckets[i]);
+      }
+      return b.append("]").toString();
+    }
+  }
+
+  /**
+   * A handler which took longer than the threshold.
+   */
+  public static class LongHandler {
+    public final String eventType;
+    public final String namespace;
+    /**
+     * Description of the element the handler ran for, and of the selector it was delegated with.
+     */
+    public final String source;
+    public final double millis;
+
+    LongHandler(String eventType, String namespace, String source, double millis) {
+      this.eventType = eventType;
+      this.namespace = namespace;
+      this.source = source;
+      this.millis = millis;
+    }
+
+    public String toString() {
+      return eventType + (namespace.isEmpty() ? "" : "." + namespace) + " on " + source + " took "
+          + round(millis) + "ms";
+    }
+  }
+
+  static boolean enabled;
+  private static double threshold = DEFAULT_THRESHOLD;
+  private static Map<String, Histogram> byEventType = new LinkedHashMap<>();
+  private static Map<String, Histogram> byNamespace = new LinkedHashMap<>();
+  private static List<LongHandler> longHandlers = new ArrayList<>();
+
+  /**
+   * Start collecting metrics, reporting handlers slower than the default threshold.
+   */
+  public static void enable() {
+    enable(DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * Start collecting metrics, reporting handlers slower than the given milliseconds.
+   */
+  public static void enable(double thresholdMillis) {
+    threshold = thresholdMillis;
+    enabled = true;
+  }
+
+  /**
+   * Stop collecting metrics, the metrics collected are kept until {@link #reset()} is called.
+   */
+  public static void disable() {
+    enabled = false;
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Discard the metrics collected.
+   */
+  public static void reset() {
+    byEventType = new LinkedHashMap<>();
+    byNamespace = new LinkedHashMap<>();
+    longHandlers = new ArrayList<>();
+  }
+
+  /**
+   * Return the histograms indexed by event type.
+   */
+  public static Map<String, Histogram> byEventType() {
+    return Collections.unmodifiableMap(byEventType);
+  }
+
+  /**
+   * Return the histograms indexed by namespace, handlers without namespace are indexed by the
+   * empty string.
+   */
+  public static Map<String, Histogram> byNamespace() {
+    return Collections.unmodifiableMap(byNamespace);
+  }
+
+  /**
+   * Return the last handlers which took longer than the threshold.
+   */
+  public static List<LongHandler> longHandlers() {
+    return Collections.unmodifiableList(longHandlers);
+  }
+
+  /**
+   * Print a summary of the metrics collected in the browser console.
+   */
+  public static void log() {
+    if (GQuery.console == null) {
+      return;
+    }
+    GQuery.console.groupCollapsed("gQuery event handlers");
+    for (Histogram h : byEventType.values()) {
+      GQuery.console.log(h.toString());
+    }
+    GQuery.console.groupCollapsed("by namespace");
+    for (Histogram h : byNamespace.values()) {
+      GQuery.console.log(h.toString());
+    }
+    GQuery.console.groupEnd();
+    for (LongHandler h : longHandlers) {
+      GQuery.console.warn(h.toString());
+    }
+    GQuery.console.groupEnd();
+  }
+
+  static void dispatched(String eventType) {
+    histogram(byEventType, eventType).dispatches++;
+  }
+
+  static void record(String eventType, String namespace, Element element, String selector,
+      double millis) {
+    histogram(byEventType, eventType).add(millis);
+    histogram(byNamespace, namespace).add(millis);
+    if (millis > threshold) {
+      if (longHandlers.size() >= MAX_LONG_HANDLERS) {
+        longHandlers.remove(0);
+      }
+      longHandlers.add(new LongHandler(eventType, namespace, describe(element, selector), millis));
+    }
+  }
+
+  private static Histogram histogram(Map<String, Histogram> index, String key) {
+    Histogram h = index.get(key);
+    if (h == null) {
+      h = new Histogram(key);
+      index.put(key, h);
+    }
+    return h;
+  }
+
+  private static String describe(Element e, String selector) {
+    String ret = "";
+    if (e == GQuery.window) {
+      ret = "window";
+    } else if (e != null) {
+      ret = e.getNodeName().toLowerCase();
+      if (e.getId() != null && !e.getId().isEmpty()) {
+        ret += "#" + e.getId();
+      }
+      // the className property of SVG elements is not a string
+      String className = e.getAttribute("class");
+      if (className != null && !className.trim().isEmpty()) {
+        ret += "." + className.trim().replaceAll("\\s+", ".");
+      }
+    }
+    return selector == null ? ret : ret + " matching delegated '" + selector + "'";
+  }
+
+  private static double round(double millis) {
+    return Math.round(millis * 100) / 100d;
+  }
+}
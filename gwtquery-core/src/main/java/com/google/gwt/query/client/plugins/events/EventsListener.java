@@ -16,22 +16,27 @@ package com.google.gwt.query.client.plugins.events;
 import static com.google.gwt.query.client.GQuery.$;
 
 import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.EventTarget;
-import com.google.gwt.dom.client.NodeList;
 import com.google.gwt.query.client.Function;
 import com.google.gwt.query.client.GQuery;
+import com.google.gwt.query.client.Predicate;
 import com.google.gwt.query.client.js.JsCache;
 import com.google.gwt.query.client.js.JsMap;
 import com.google.gwt.query.client.js.JsNamedArray;
 import com.google.gwt.query.client.js.JsObjectArray;
 import com.google.gwt.query.client.js.JsUtils;
 import com.google.gwt.query.client.plugins.events.SpecialEvent.DefaultSpecialEvent;
+import com.google.gwt.regexp.shared.MatchResult;
+import com.google.gwt.regexp.shared.RegExp;
 import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.Event;
 import com.google.gwt.user.client.EventListener;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -99,12 +104,22 @@ public class EventsListener implements EventListener {
    * The function used per each element event.
    */
   private static class BindFunction {
+    private static final Object[] NO_DATA = new Object[0];
+    private static int counter = 0;
+
     Object data;
     Function function;
     String nameSpace;
     int times;
     int type;
     String eventName;
+    // binding sequence, used to keep the binding order when dispatching
+    int order = ++counter;
+    // when true the instance is bound to many elements, so it must not be modified
+    boolean shared;
+    // the data as the arguments passed to the function, computed once per binding. It is a copy
+    // of the array bound, so as handlers modifying their arguments do not change the caller one
+    private final Object[] handlerData;
 
     BindFunction(int type, String eventName, String nameSpace, Function function, Object data,
         int times) {
@@ -114,30 +129,57 @@ public class EventsListener implements EventListener {
       this.function = function;
       this.data = data;
       this.nameSpace = nameSpace != null ? nameSpace : "";
+      this.handlerData = data == null ? null : data.getClass().isArray()
+          ? Arrays.copyOf((Object[]) data, ((Object[]) data).length) : new Object[]{data};
     }
 
     public boolean fire(Event event, Object[] eventData) {
-      return fire(event, event.getTypeInt(), event.getType(), eventData);
+      return fire(event, eventData, null, null);
+    }
+
+    public boolean fire(Event event, Object[] eventData, Element element, String selector) {
+      return fire(event, event.getTypeInt(), event.getType(), eventData, element, selector);
     }
 
     public boolean fire(Event event, int typeInt, String type, Object[] eventData) {
+      return fire(event, typeInt, type, eventData, null, null);
+    }
+
+    /**
+     * Run the function. The element and the delegated selector are only used to describe the
+     * handler in {@link EventMetrics}.
+     */
+    public boolean fire(Event event, int typeInt, String type, Object[] eventData,
+        Element element, String selector) {
       if (times != 0) {
-        times--;
+        if (times > 0) {
+          times--;
+        }
         Object[] arguments;
-        eventData = eventData != null ? eventData : new Object[0];
         // The argument of the function will be first the data attached to the handler then the
-        // data attached to the event.
-        if (data != null) {
-          Object[] handlerData = data.getClass().isArray() ? (Object[]) data : new Object[]{data};
+        // data attached to the event. Arrays are only allocated when both are present, otherwise
+        // they are shared by all the dispatches, so handlers must not modify their arguments.
+        if (eventData == null || eventData.length == 0) {
+          arguments = handlerData != null ? handlerData : NO_DATA;
+        } else if (handlerData == null) {
+          arguments = eventData;
+        } else {
           arguments = new Object[handlerData.length + eventData.length];
           System.arraycopy(handlerData, 0, arguments, 0, handlerData.length);
           System.arraycopy(eventData, 0, arguments, handlerData.length, eventData.length);
-        } else {
-          arguments = eventData;
         }
         // FIXME(manolo): figure out when this is null, and fix or comment it.
         if (function != null) {
-          return function.fe(event, arguments);
+          if (!EventMetrics.enabled) {
+            return function.fe(event, arguments);
+          }
+          double start = Duration.currentTimeMillis();
+          try {
+            return function.fe(event, arguments);
+          } finally {
+            EventMetrics.record(type, nameSpace, element, selector,
+                Duration.currentTimeMillis() - start);
+          }
         }
       }
       return true;
@@ -172,9 +214,146 @@ public class EventsListener implements EventListener {
       return "bind function for event type " + (eventName != null ? eventName : "" + type);
     }
 
+    /**
+     * Return a copy which is not shared, keeping the binding order.
+     */
+    BindFunction copy() {
+      BindFunction ret = new BindFunction(type, eventName, nameSpace, function, data, times);
+      ret.order = order;
+      return ret;
+    }
+
     public boolean isEquals(Function f) {
       assert f != null : "function f cannot be null";
-      return f.equals(function);
+      // rate limited wrappers are unbound by the handler they wrap too
+      return f.equals(function) || function instanceof RateLimitedFunction
+          && f.equals(((RateLimitedFunction) function).getHandler());
+    }
+
+    /**
+     * Discard the pending call of rate limited functions for the element they are unbound from.
+     */
+    void cancel(Element e) {
+      if (function instanceof RateLimitedFunction) {
+        ((RateLimitedFunction) function).cancel(e);
+      }
+    }
+  }
+
+  /**
+   * A set of elements bound to one handler by event delegation, used as a matcher, so as a large
+   * set of elements can share one listener instead of having an EventsListener each.
+   *
+   * The set keeps its members by their hashCode, so as it does not retain removed elements and
+   * membership is tested in constant time without storing anything in the element data. Sets
+   * registered in a listener are also kept in a global index, used to remove an element from all
+   * its sets when it is cleaned.
+   */
+  private static class ElementSet extends Predicate {
+    // Sets registered in a listener, indexed by their key
+    private static final JsNamedArray<ElementSet> registered = JsNamedArray.create();
+    private static int registeredCount = 0;
+    private static int counter = 0;
+
+    // Used as the selector identifying the set in the LiveBindFunction
+    final String key = "gq-elements-" + counter++;
+    // the listener where the set is registered, and the handler of its elements
+    final LiveBindFunction owner;
+    final BindFunction function;
+    // when true each element fires the handler once, then it is removed from the set
+    final boolean once;
+    private final JsCache members = JsCache.create();
+    private int size;
+
+    ElementSet(LiveBindFunction owner, BindFunction function, boolean once) {
+      this.owner = owner;
+      this.function = function;
+      this.once = once;
+    }
+
+    void add(Element e) {
+      if (!members.exists(e.hashCode())) {
+        members.putBoolean(e.hashCode(), true);
+        size++;
+      }
+    }
+
+    void remove(Element e) {
+      if (members.exists(e.hashCode())) {
+        members.delete(e.hashCode());
+        size--;
+      }
+    }
+
+    boolean contains(Element e) {
+      return size != 0 && members.exists(e.hashCode());
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    /**
+     * Return whether the function is bound to this set with the same handler, namespace and
+     * data, so as it can be merged with it.
+     */
+    boolean isFor(BindFunction f, boolean once) {
+      return this.once == once && function.function == f.function
+          && function.nameSpace.equals(f.nameSpace) && function.data == f.data;
+    }
+
+    static void register(ElementSet set) {
+      if (registered.get(set.key) == null) {
+        registered.put(set.key, set);
+        registeredCount++;
+      }
+    }
+
+    static void unregister(ElementSet set) {
+      if (set != null && registered.get(set.key) != null) {
+        registered.delete(set.key);
+        registeredCount--;
+      }
+    }
+
+    /**
+     * Return the number of registered sets the element belongs to.
+     */
+    static int memberships(Element e) {
+      int ret = 0;
+      if (registeredCount > 0) {
+        for (String k : registered.keys()) {
+          if (registered.get(k).contains(e)) {
+            ret++;
+          }
+        }
+      }
+      return ret;
+    }
+
+    /**
+     * Remove the element from all the sets it belongs to, unregistering the sets which become
+     * empty from their listeners.
+     */
+    static void removeAll(Element e) {
+      if (registeredCount == 0) {
+        return;
+      }
+      for (String k : registered.keys()) {
+        ElementSet set = registered.get(k);
+        if (set != null && set.contains(e)) {
+          set.remove(e);
+          set.function.cancel(e);
+          if (set.isEmpty()) {
+            set.owner.removeBindFunctionForSelector(set.key, null);
+          }
+        }
+      }
+    }
+
+    @Override
+    public boolean f(Element e, int index) {
+      return contains(e);
     }
   }
 
@@ -184,8 +363,98 @@ public class EventsListener implements EventListener {
    */
   private static class LiveBindFunction extends BindFunction {
 
+    // Same as GQuery.posRegex, positional selectors depend on the delegating element
+    private static final RegExp positionalRegex = RegExp
+        .compile("^:(nth|eq|gt|lt|first|last|even|odd)(?:\\((\\d*)\\))?(?=[^\\-]|$)$");
+
+    // Captures the tag, ids and classes of the rightmost compound of a selector
+    private static final RegExp rightmostRegex = RegExp
+        .compile("(?:^|[\\s>+~])(\\*|[\\w-]*)((?:[#.][\\w-]+)*)\\s*$");
+
+    private static final String UNIVERSAL = "*";
+
+    /**
+     * A delegated selector compiled once, so as it is not parsed in each dispatch.
+     */
+    private static class DelegatedSelector {
+      final String selector;
+      final int order;
+      final Predicate matcher;
+
+      DelegatedSelector(String selector, int order, Predicate matcher) {
+        this.selector = selector;
+        this.order = order;
+        this.matcher = matcher != null ? matcher : positionalRegex.test(selector) ? null
+            : GQuery.getSelectorEngine().matcher(selector);
+      }
+    }
+
+    /**
+     * Ancestors of the event target matching the delegated selectors in one dispatch.
+     */
+    private static class Dispatch {
+      // selectors which matched some element, in the order of their first match
+      final DelegatedSelector[] matched;
+      // elements matching each selector of matched, from the target up
+      final JsObjectArray<JsObjectArray<Element>> elements = JsObjectArray.create();
+      // position in matched of each selector by order, -1 when it did not match
+      final int[] slotByOrder;
+      // selectors matching the element being visited, sorted by order
+      final DelegatedSelector[] level;
+      int count;
+      // positional selectors are resolved once per dispatch
+      JsNamedArray<GQuery> positional;
+
+      Dispatch(int size) {
+        matched = new DelegatedSelector[size];
+        level = new DelegatedSelector[size];
+        slotByOrder = new int[size];
+        Arrays.fill(slotByOrder, -1);
+      }
+
+      void add(DelegatedSelector s, Element e) {
+        int slot = slotByOrder[s.order];
+        if (slot < 0) {
+          slot = slotByOrder[s.order] = count;
+          matched[count++] = s;
+          if (elements.get(slot) == null) {
+            elements.set(slot, JsObjectArray.<Element> create());
+          }
+        }
+        JsObjectArray<Element> list = elements.get(slot);
+        list.set(list.length(), e);
+      }
+
+      void reset() {
+        for (int i = 0; i < count; i++) {
+          slotByOrder[matched[i].order] = -1;
+          matched[i] = null;
+          elements.get(i).clear();
+        }
+        count = 0;
+        positional = null;
+      }
+    }
+
     JsNamedArray<JsObjectArray<BindFunction>> bindFunctionBySelector;
 
+    // Matchers for the keys which are not css selectors, like element sets
+    JsNamedArray<ElementSet> elementSetBySelector;
+
+    // Compiled selectors, indexed by their order. It is built lazily.
+    private DelegatedSelector[] compiled;
+    // Compiled selectors grouped by the id, class or tag of their rightmost compound, so as each
+    // ancestor is only tested against selectors which can match it.
+    private JsObjectArray<DelegatedSelector> universalSelectors;
+    private JsNamedArray<JsObjectArray<DelegatedSelector>> selectorsById;
+    private JsNamedArray<JsObjectArray<DelegatedSelector>> selectorsByClass;
+    private JsNamedArray<JsObjectArray<DelegatedSelector>> selectorsByTag;
+    private boolean hasClassKeys;
+
+    // Buffers reused between dispatches, nested dispatches allocate their own ones
+    private Dispatch scratch;
+    private boolean dispatching;
+
     LiveBindFunction(String eventName, String namespace, Object data) {
       super(BITLESS, eventName, namespace, null, data, -1);
       clean();
@@ -200,21 +469,190 @@ public class EventsListener implements EventListener {
      * Add a {@link BindFunction} for a specific css selector.
      */
     public void addBindFunctionForSelector(String cssSelector, BindFunction f) {
+      addBindFunctionForSelector(cssSelector, null, f);
+    }
+
+    /**
+     * Add a {@link BindFunction} for a specific css selector, or for the elements of a set when
+     * it is not null.
+     */
+    private void addBindFunctionForSelector(String cssSelector, ElementSet set, BindFunction f) {
+      if (set != null) {
+        elementSetBySelector.put(cssSelector, set);
+        ElementSet.register(set);
+      }
       JsObjectArray<BindFunction> bindFunctions = bindFunctionBySelector.get(cssSelector);
       if (bindFunctions == null) {
         bindFunctions = JsObjectArray.create();
         bindFunctionBySelector.put(cssSelector, bindFunctions);
+        compiled = null;
       }
 
       bindFunctions.add(f);
     }
 
     public void clean() {
+      unregisterElementSets();
       bindFunctionBySelector = JsNamedArray.create();
+      elementSetBySelector = JsNamedArray.create();
+      compiled = null;
+    }
+
+    /**
+     * Compile the delegated selectors and group them by the key of their rightmost compound.
+     */
+    private void ensureCompiled() {
+      if (compiled == null) {
+        String[] selectors = bindFunctionBySelector.keys();
+        compiled = new DelegatedSelector[selectors.length];
+        universalSelectors = JsObjectArray.create();
+        selectorsById = JsNamedArray.create();
+        selectorsByClass = JsNamedArray.create();
+        selectorsByTag = JsNamedArray.create();
+        hasClassKeys = false;
+        scratch = null;
+        for (int i = 0; i < selectors.length; i++) {
+          ElementSet set = elementSetBySelector.get(selectors[i]);
+          DelegatedSelector s = compiled[i] = new DelegatedSelector(selectors[i], i, set);
+          String key = set != null ? UNIVERSAL : rightmostKey(selectors[i]);
+          if (UNIVERSAL.equals(key)) {
+            universalSelectors.add(s);
+          } else if (key.charAt(0) == '#') {
+            addToBucket(selectorsById, key.substring(1), s);
+          } else if (key.charAt(0) == '.') {
+            hasClassKeys = true;
+            addToBucket(selectorsByClass, key.substring(1), s);
+          } else {
+            // tag names are looked up as returned by the browser, which depends on the document
+            addToBucket(selectorsByTag, key, s);
+            addToBucket(selectorsByTag, key.toLowerCase(), s);
+            addToBucket(selectorsByTag, key.toUpperCase(), s);
+          }
+        }
+      }
+    }
+
+    private static void addToBucket(JsNamedArray<JsObjectArray<DelegatedSelector>> buckets,
+        String key, DelegatedSelector s) {
+      JsObjectArray<DelegatedSelector> bucket = buckets.get(key);
+      if (bucket == null) {
+        bucket = JsObjectArray.create();
+        buckets.put(key, bucket);
+      }
+      if (bucket.length() == 0 || bucket.get(bucket.length() - 1) != s) {
+        bucket.add(s);
+      }
+    }
+
+    /**
+     * Return the id (#id), class (.class) or tag an element must have to match the selector,
+     * or the universal key when it can not be figured out without evaluating it.
+     */
+    private static String rightmostKey(String selector) {
+      MatchResult m = selector.indexOf(',') < 0 ? rightmostRegex.exec(selector) : null;
+      if (m == null) {
+        return UNIVERSAL;
+      }
+      String tag = m.getGroup(1), rest = m.getGroup(2);
+      if (rest != null && !rest.isEmpty()) {
+        int id = rest.indexOf('#');
+        int start = id >= 0 ? id : 0;
+        int end = start + 1;
+        while (end < rest.length() && rest.charAt(end) != '.' && rest.charAt(end) != '#') {
+          end++;
+        }
+        return rest.substring(start, end);
+      }
+      return tag == null || tag.isEmpty() || UNIVERSAL.equals(tag) ? UNIVERSAL : tag;
     }
 
+    /**
+     * Add to the first <code>n</code> positions of the level buffer the selectors of a bucket
+     * which match the element, keeping them sorted by registration order. Returns the new count.
+     */
+    private int matchBucket(JsObjectArray<DelegatedSelector> bucket, Element e, Dispatch d,
+        int n, Element context) {
+      for (int i = 0, l = bucket == null ? 0 : bucket.length(); i < l; i++) {
+        DelegatedSelector s = bucket.get(i);
+        boolean match;
+        if (s.matcher != null) {
+          match = s.matcher.f(e, 0);
+        } else {
+          if (d.positional == null) {
+            d.positional = JsNamedArray.create();
+          }
+          GQuery pos = d.positional.get(s.selector);
+          if (pos == null) {
+            pos = $(s.selector, context);
+            d.positional.put(s.selector, pos);
+          }
+          match = pos.index(e) > -1;
+        }
+        if (match) {
+          int j = n;
+          while (j > 0 && d.level[j - 1].order >= s.order) {
+            if (d.level[j - 1] == s) {
+              // the element has the same class twice
+              match = false;
+              break;
+            }
+            j--;
+          }
+          if (match) {
+            System.arraycopy(d.level, j, d.level, j + 1, n - j);
+            d.level[j] = s;
+            n++;
+          }
+        }
+      }
+      return n;
+    }
+
+    /**
+     * Collect the ancestors of the target, up to the context, matching each delegated
+     * selector. Each element is only tested against the selectors of the buckets it
+     * can match, and each pair element-selector is evaluated once per dispatch.
+     */
+    private void closest(Element target, Element context, Dispatch d) {
+      Element current = target;
+      while (current != null && current.getOwnerDocument() != null && current != context) {
+        int n = matchBucket(universalSelectors, current, d, 0, context);
+        n = matchBucket(selectorsByTag.get(current.getTagName()), current, d, n, context);
+        String id = current.getId();
+        if (id != null && !id.isEmpty()) {
+          n = matchBucket(selectorsById.get(id), current, d, n, context);
+        }
+        if (hasClassKeys) {
+          int classes = classCount(current);
+          for (int i = 0; i < classes; i++) {
+            n = matchBucket(selectorsByClass.get(classAt(current, i)), current, d, n, context);
+          }
+          if (classes < 0) {
+            // browsers without classList
+            String className = current.getAttribute("class");
+            for (String c : className == null ? new String[0] : className.trim().split("\\s+")) {
+              n = matchBucket(selectorsByClass.get(c), current, d, n, context);
+            }
+          }
+        }
+        for (int i = 0; i < n; i++) {
+          d.add(d.level[i], current);
+        }
+        current = current.getParentElement();
+      }
+    }
+
+    private static native int classCount(Element e) /*-{
+      return e.classList ? e.classList.length : -1;
+    }-*/;
+
+    private static native String classAt(Element e, int i) /*-{
+      return e.classList[i];
+    }-*/;
+
     @Override
-    public boolean fire(Event event, int typeInt, String type, Object[] eventData) {
+    public boolean fire(Event event, int typeInt, String type, Object[] eventData,
+        Element element, String selector) {
       if (isEmpty()) {
         return true;
       }
@@ -228,50 +666,62 @@ public class EventsListener implements EventListener {
         return true;
       }
 
-      // Compute the live selectors which respond to this event type
-      List<String> validSelectors = new ArrayList<>();
-      for (String cssSelector : bindFunctionBySelector.keys()) {
-        JsObjectArray<BindFunction> bindFunctions = bindFunctionBySelector.get(cssSelector);
-        for (int i = 0; bindFunctions != null && i < bindFunctions.length(); i++) {
-          BindFunction f = bindFunctions.get(i);
-          if (f.hasEventType(typeInt) || f.isTypeOf(type)) {
-            validSelectors.add(cssSelector);
-            break;
-          }
-        }
+      ensureCompiled();
+      boolean nested = dispatching;
+      Dispatch d = nested || scratch == null ? new Dispatch(compiled.length) : scratch;
+      if (!nested) {
+        scratch = d;
       }
+      dispatching = true;
+      try {
+        return fire(event, typeInt, type, eventTarget, liveContextElement, d);
+      } finally {
+        dispatching = nested;
+        d.reset();
+      }
+    }
 
-      // Create a structure of elements which matches the selectors
-      JsNamedArray<NodeList<Element>> realCurrentTargetBySelector =
-          $(eventTarget).closest(validSelectors.toArray(new String[0]), liveContextElement);
+    private boolean fire(Event event, int typeInt, String type, Element eventTarget,
+        Element liveContextElement, Dispatch d) {
+      // Collect the elements which match the selectors
+      closest(eventTarget, liveContextElement, d);
       // nothing matches the selectors
-      if (realCurrentTargetBySelector.length() == 0) {
+      if (d.count == 0) {
         return true;
       }
 
       Element stopElement = null;
       GqEvent gqEvent = GqEvent.create(event);
-      for (String cssSelector : realCurrentTargetBySelector.keys()) {
+      for (int k = 0; k < d.count; k++) {
+        String cssSelector = d.matched[k].selector;
+        JsObjectArray<Element> n = d.elements.get(k);
         JsObjectArray<BindFunction> bindFunctions = bindFunctionBySelector.get(cssSelector);
+        ElementSet set = elementSetBySelector.get(cssSelector);
+        ElementSet once = set != null && set.once ? set : null;
         for (int i = 0; bindFunctions != null && i < bindFunctions.length(); i++) {
           BindFunction f = bindFunctions.get(i);
           if (f.hasEventType(typeInt) || f.isTypeOf(type)) {
-            NodeList<Element> n = realCurrentTargetBySelector.get(cssSelector);
-            for (int j = 0; n != null && j < n.getLength(); j++) {
-              Element element = n.getItem(j);
+            for (int j = 0, l = n.length(); j < l; j++) {
+              Element element = n.get(j);
               // When an event fired in an element stops bubbling we have to fire also all other
               // handlers for this element bound to this element
               if (stopElement == null || element.equals(stopElement)) {
                 gqEvent.setCurrentElementTarget(element);
                 // data
-                eventData = $(element).data(EVENT_DATA);
-                if (!f.fire(gqEvent, eventData)) {
+                Object[] eventData = GQuery.data(element, EVENT_DATA);
+                if (!f.fire(gqEvent, eventData, element, cssSelector)) {
                   stopElement = element;
                 }
+                if (once != null) {
+                  once.remove(element);
+                }
               }
             }
           }
         }
+        if (once != null && once.isEmpty()) {
+          removeBindFunctionForSelector(cssSelector, null);
+        }
       }
 
       // trick to reset the right currentTarget on the original event on ie
@@ -283,8 +733,10 @@ public class EventsListener implements EventListener {
      * Remove the BindFunction associated to this cssSelector.
      */
     public void removeBindFunctionForSelector(String cssSelector, String nameSpace) {
+      compiled = null;
       if (nameSpace == null) {
         bindFunctionBySelector.delete(cssSelector);
+        removeElementSet(cssSelector);
       } else {
         JsObjectArray<BindFunction> functions = bindFunctionBySelector.get(cssSelector);
 
@@ -303,6 +755,75 @@ public class EventsListener implements EventListener {
         bindFunctionBySelector.delete(cssSelector);
         if (newFunctions.length() > 0) {
           bindFunctionBySelector.put(cssSelector, newFunctions);
+        } else {
+          removeElementSet(cssSelector);
+        }
+      }
+    }
+
+    /**
+     * Called when the listener drops this function, so as its sets are not used anymore.
+     */
+    @Override
+    void cancel(Element e) {
+      super.cancel(e);
+      unregisterElementSets();
+    }
+
+    private void unregisterElementSets() {
+      for (String key : elementSetBySelector.keys()) {
+        ElementSet.unregister(elementSetBySelector.get(key));
+      }
+    }
+
+    private void removeElementSet(String cssSelector) {
+      ElementSet.unregister(elementSetBySelector.get(cssSelector));
+      elementSetBySelector.delete(cssSelector);
+    }
+
+    /**
+     * Bind the function to the elements passed. Elements are added to the set bound to the same
+     * handler, namespace and data if it exists, so as binding elements one by one does not
+     * create a set per element.
+     */
+    void addElements(Element[] elements, BindFunction f, boolean once) {
+      ElementSet set = null;
+      for (String key : elementSetBySelector.keys()) {
+        if (elementSetBySelector.get(key).isFor(f, once)) {
+          set = elementSetBySelector.get(key);
+          break;
+        }
+      }
+      boolean created = set == null;
+      if (created) {
+        set = new ElementSet(this, f, once);
+      }
+      for (Element e : elements) {
+        set.add(e);
+      }
+      if (created && !set.isEmpty()) {
+        addBindFunctionForSelector(set.key, set, f);
+      }
+    }
+
+    /**
+     * Remove the elements passed from the sets whose {@link BindFunction}s match the namespace
+     * and the function, unregistering the sets which become empty.
+     */
+    public void removeElements(Element[] elements, String nameSpace, Function function) {
+      for (String key : elementSetBySelector.keys()) {
+        ElementSet set = elementSetBySelector.get(key);
+        boolean matchNS = nameSpace == null || nameSpace.isEmpty()
+            || nameSpace.equals(set.function.nameSpace);
+        boolean matchFC = function == null || set.function.isEquals(function);
+        if (matchNS && matchFC) {
+          for (Element e : elements) {
+            set.remove(e);
+            set.function.cancel(e);
+          }
+          if (set.isEmpty()) {
+            removeBindFunctionForSelector(key, null);
+          }
         }
       }
     }
@@ -356,6 +877,9 @@ public class EventsListener implements EventListener {
 
   public static String MOUSEENTER = "mouseenter";
   public static String MOUSELEAVE = "mouseleave";
+  public static String RESIZE = "resize";
+  public static String ENTERVIEWPORT = "enterviewport";
+  public static String LEAVEVIEWPORT = "leaveviewport";
 
   public static Map<String, SpecialEvent> special;
 
@@ -364,6 +888,10 @@ public class EventsListener implements EventListener {
     special = new HashMap<>();
     special.put(MOUSEENTER, new MouseSpecialEvent(MOUSEENTER, "mouseover"));
     special.put(MOUSELEAVE, new MouseSpecialEvent(MOUSELEAVE, "mouseout"));
+    // Element size and visibility changes notified by the browser observers
+    special.put(RESIZE, new ObserverSpecialEvent(RESIZE));
+    special.put(ENTERVIEWPORT, new ObserverSpecialEvent(ENTERVIEWPORT));
+    special.put(LEAVEVIEWPORT, new ObserverSpecialEvent(LEAVEVIEWPORT));
   }
 
   public static void clean(Element e) {
@@ -371,6 +899,8 @@ public class EventsListener implements EventListener {
     if (ret != null) {
       ret.clean();
     }
+    // handlers delegated to a container with liveElements
+    ElementSet.removeAll(e);
   }
 
   public static EventsListener getInstance(Element e) {
@@ -378,6 +908,149 @@ public class EventsListener implements EventListener {
     return ret != null ? ret : new EventsListener(e);
   }
 
+  /**
+   * Return whether gQuery is listening to events of the element.
+   */
+  public static boolean hasListener(Element e) {
+    return getGQueryEventListener(e) != null;
+  }
+
+  /**
+   * Return the number of handlers bound to the element, not including the ones
+   * delegated to its descendants.
+   */
+  public static int handlersCount(Element e) {
+    EventsListener l = getGQueryEventListener(e);
+    int ret = 0;
+    for (int i = 0, j = l != null ? l.elementEvents.length() : 0; i < j; i++) {
+      if (!(l.elementEvents.get(i) instanceof LiveBindFunction)) {
+        ret++;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Return the number of LiveBindFunction maps attached to the element, one per event type
+   * delegated to its descendants.
+   */
+  public static int liveBindFunctionsCount(Element e) {
+    EventsListener l = getGQueryEventListener(e);
+    int ret = 0;
+    for (int i = 0, j = l != null ? l.elementEvents.length() : 0; i < j; i++) {
+      if (l.elementEvents.get(i) instanceof LiveBindFunction) {
+        ret++;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Return the number of handlers delegated by the element to its descendants.
+   */
+  public static int liveHandlersCount(Element e) {
+    EventsListener l = getGQueryEventListener(e);
+    int ret = 0;
+    for (int i = 0, j = l != null ? l.elementEvents.length() : 0; i < j; i++) {
+      BindFunction f = l.elementEvents.get(i);
+      if (f instanceof LiveBindFunction) {
+        JsNamedArray<JsObjectArray<BindFunction>> bySelector =
+            ((LiveBindFunction) f).bindFunctionBySelector;
+        for (String selector : bySelector.keys()) {
+          ret += bySelector.get(selector).length();
+        }
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Return the number of sets of elements whose handlers are delegated to the element with
+   * {@link com.google.gwt.query.client.plugins.Events#delegated(Element)}.
+   */
+  public static int elementSetsCount(Element e) {
+    EventsListener l = getGQueryEventListener(e);
+    int ret = 0;
+    for (int i = 0, j = l != null ? l.elementEvents.length() : 0; i < j; i++) {
+      BindFunction f = l.elementEvents.get(i);
+      if (f instanceof LiveBindFunction) {
+        ret += ((LiveBindFunction) f).elementSetBySelector.length();
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Return the number of elements in the sets delegated to the element, including the ones
+   * which are not in the document anymore because they were removed without cleaning them.
+   */
+  public static int elementSetsSize(Element e) {
+    EventsListener l = getGQueryEventListener(e);
+    int ret = 0;
+    for (int i = 0, j = l != null ? l.elementEvents.length() : 0; i < j; i++) {
+      BindFunction f = l.elementEvents.get(i);
+      if (f instanceof LiveBindFunction) {
+        JsNamedArray<ElementSet> sets = ((LiveBindFunction) f).elementSetBySelector;
+        for (String key : sets.keys()) {
+          ret += sets.get(key).size;
+        }
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Return the number of delegated sets the element belongs to.
+   */
+  public static int elementSetMemberships(Element e) {
+    return ElementSet.memberships(e);
+  }
+
+  /**
+   * Return the elements referenced by the handlers of the element, including the delegated and
+   * the shared ones: elements and gQuery objects passed as data when binding them.
+   */
+  public static List<Element> referencedElements(Element e) {
+    EventsListener l = getGQueryEventListener(e);
+    List<Element> ret = new ArrayList<>();
+    for (int i = 0, j = l != null ? l.elementEvents.length() : 0; i < j; i++) {
+      BindFunction f = l.elementEvents.get(i);
+      if (f instanceof LiveBindFunction) {
+        JsNamedArray<JsObjectArray<BindFunction>> bySelector =
+            ((LiveBindFunction) f).bindFunctionBySelector;
+        for (String selector : bySelector.keys()) {
+          JsObjectArray<BindFunction> functions = bySelector.get(selector);
+          for (int k = 0, m = functions.length(); k < m; k++) {
+            addReferencedElements(functions.get(k), ret);
+          }
+        }
+      } else {
+        addReferencedElements(f, ret);
+      }
+    }
+    return ret;
+  }
+
+  private static void addReferencedElements(BindFunction f, List<Element> ret) {
+    for (int i = 0, l = f.handlerData != null ? f.handlerData.length : 0; i < l; i++) {
+      Object o = f.handlerData[i];
+      if (o instanceof GQuery) {
+        ret.addAll(Arrays.asList(((GQuery) o).elements()));
+      } else if (o instanceof JavaScriptObject && JsUtils.isElement(o)) {
+        ret.add(((JavaScriptObject) o).<Element> cast());
+      }
+    }
+  }
+
+  /**
+   * Return the elements registered in the resize and viewport observers, which retain them
+   * until their handlers are unbound. They are tracked through weak references, so it is empty
+   * in browsers without WeakRef.
+   */
+  public static List<Element> observedElements() {
+    return ObserverSpecialEvent.observedElements();
+  }
+
   /**
    * We have to set the gQuery event listener to the element again when
    * the element is a widget, because when GWT detaches a widget it removes the
@@ -394,6 +1067,12 @@ public class EventsListener implements EventListener {
     if (elem.__gwtlistener) {
       @com.google.gwt.user.client.DOM::setEventListener(*)(elem, elem.__gwtlistener);
     }
+    if (elem.__gquery && elem.removeEventListener) {
+      for (var name in elem.__gquery) {
+        var l = elem.__gquery[name];
+        elem.removeEventListener(name, l.handle, l.capture);
+      }
+    }
     elem.__gwtlistener = elem.__gqueryevent = elem.__gquery = null;
   }-*/;
 
@@ -414,29 +1093,73 @@ public class EventsListener implements EventListener {
     if (elem.__gwtlistener == gqevent) elem.__gwtlistener = null;
   }-*/;
 
-  private static native void sinkBitlessEvent(Element elem, String name) /*-{
+  private static native boolean supportsPassive() /*-{
+    var ret = false;
+    try {
+      var opts = Object.defineProperty({}, 'passive', {get: function() {ret = true;}});
+      $wnd.addEventListener('test', null, opts);
+      $wnd.removeEventListener('test', null, opts);
+    } catch (e) {
+    }
+    return ret;
+  }-*/;
+
+  /**
+   * Register a native listener for the event. There is only one listener per event name, so
+   * when handlers ask for different options the listener is replaced by one which satisfies
+   * all of them: it is captured if any handler needs it, and passive only if all are.
+   */
+  private static native void sinkNativeEvent(Element elem, String name, boolean capture,
+      boolean passive) /*-{
     if (!elem.__gquery)
-      elem.__gquery = [];
-    if (elem.__gquery[name])
-      return;
-    elem.__gquery[name] = true;
+      elem.__gquery = {};
+    var l = elem.__gquery[name];
+    if (l) {
+      capture = capture || l.capture;
+      passive = passive && l.passive;
+      if (capture == l.capture && passive == l.passive)
+        return;
+      elem.removeEventListener(name, l.handle, l.capture);
+    }
 
-    var handle = function(event) {
+    var handle = l ? l.handle : function(event) {
       elem.__gqueryevent.@com.google.gwt.query.client.plugins.events.EventsListener::onBrowserEvent(Lcom/google/gwt/user/client/Event;)(event);
     };
+    elem.__gquery[name] = {handle: handle, capture: capture, passive: passive};
 
     if (elem.addEventListener)
-      elem.addEventListener(name, handle, true);
+      elem.addEventListener(name, handle,
+          @com.google.gwt.query.client.plugins.events.EventsListener::passiveSupported
+          ? {capture: capture, passive: passive} : capture);
     else
       elem.attachEvent("on" + name, handle);
   }-*/;
 
+  /**
+   * Whether listeners of the event block scrolling until handlers finish, unless they are passive.
+   */
+  private static boolean isScrollBlocking(String eventName) {
+    return "touchstart".equalsIgnoreCase(eventName) || "touchmove".equalsIgnoreCase(eventName)
+        || "wheel".equalsIgnoreCase(eventName);
+  }
+
+  private static final boolean passiveSupported = GWT.isClient() && supportsPassive();
+
   int eventBits = 0;
+  // events with bit which are listened natively instead of sunk by GWT
+  int nativeBits = 0;
   double lastEvnt = 0;
   String lastType = "";
 
   private Element element;
   private JsObjectArray<BindFunction> elementEvents = JsObjectArray.createArray().cast();
+
+  // Indexes of elementEvents by event bit position, by lower-cased event name, and by namespace,
+  // so as dispatching an event only visits the handlers which can fire. They are rebuilt lazily
+  // after handlers are removed.
+  private JsObjectArray<JsObjectArray<BindFunction>> handlersByBit;
+  private JsNamedArray<JsObjectArray<BindFunction>> handlersByName;
+  private JsNamedArray<JsObjectArray<BindFunction>> handlersByNamespace;
   private JsMap<Integer, LiveBindFunction> liveBindFunctionByEventType = JsMap.create();
   private JsMap<String, LiveBindFunction> liveBindFunctionByEventName = JsMap.create();
 
@@ -464,17 +1187,27 @@ public class EventsListener implements EventListener {
   }
 
   public void bind(String events, final Object data, Function... funcs) {
+    bind(events, data, null, funcs);
+  }
+
+  /**
+   * Bind handlers to the events passed, registering the native listeners with the options
+   * given. When options are null, the defaults are used.
+   */
+  public void bind(String events, Object data, ListenerOptions options, Function... funcs) {
     if (funcs.length == 0 || funcs[0] == null) {
       unbind(events, null);
     }
 
+    int times = options != null && options.getOnce() ? 1 : -1;
     for (EventName ev : EventName.split(events)) {
       SpecialEvent hook = special.get(ev.eventName);
       boolean bind = hook == null || hook.setup(element) == false;
       for (Function function : funcs) {
         int b = Event.getTypeInt(ev.eventName);
         if (bind) {
-          bind(b, ev.nameSpace, ev.eventName, data, function, -1);
+          sink(b, ev.eventName, options);
+          addHandler(new BindFunction(b, ev.eventName, ev.nameSpace, function, data, times));
         }
         if (hook != null) {
           hook.add(element, ev.eventName, ev.nameSpace, data, function);
@@ -483,9 +1216,96 @@ public class EventsListener implements EventListener {
     }
   }
 
+  /**
+   * Bind the handlers to all the elements passed, sharing one immutable BindFunction per event
+   * and handler instead of creating one per element, so as binding large sets of elements uses
+   * much less memory. Handlers executed once need a counter per element, so they are not shared.
+   */
+  public static void bindShared(Element[] elements, String events, Object data,
+      ListenerOptions options, Function... funcs) {
+    if (funcs.length == 0 || funcs[0] == null || options != null && options.getOnce()) {
+      for (Element e : elements) {
+        getInstance(e).bind(events, data, options, funcs);
+      }
+      return;
+    }
+
+    boolean[] bind = new boolean[elements.length];
+    for (EventName ev : EventName.split(events)) {
+      SpecialEvent hook = special.get(ev.eventName);
+      for (int i = 0; i < elements.length; i++) {
+        bind[i] = hook == null || hook.setup(elements[i]) == false;
+      }
+      int b = Event.getTypeInt(ev.eventName);
+      for (Function function : funcs) {
+        BindFunction shared = null;
+        for (int i = 0; i < elements.length; i++) {
+          if (bind[i]) {
+            if (shared == null) {
+              shared = new BindFunction(b, ev.eventName, ev.nameSpace, function, data, -1);
+              shared.shared = true;
+            }
+            EventsListener listener = getInstance(elements[i]);
+            listener.sink(b, ev.eventName, options);
+            listener.addHandler(shared);
+          }
+          if (hook != null) {
+            hook.add(elements[i], ev.eventName, ev.nameSpace, data, function);
+          }
+        }
+      }
+    }
+  }
+
   public void bind(int eventbits, String namespace, String eventName, Object data, Function function, int times) {
     sink(eventbits, eventName);
-    elementEvents.add(new BindFunction(eventbits, eventName, namespace, function, data, times));
+    addHandler(new BindFunction(eventbits, eventName, namespace, function, data, times));
+  }
+
+  private void addHandler(BindFunction f) {
+    elementEvents.add(f);
+    if (handlersByBit != null) {
+      index(f);
+    }
+  }
+
+  private void index(BindFunction f) {
+    if (f.type != BITLESS) {
+      for (int bits = f.type; bits != 0; bits &= bits - 1) {
+        int bit = Integer.numberOfTrailingZeros(bits);
+        JsObjectArray<BindFunction> bucket = handlersByBit.get(bit);
+        if (bucket == null) {
+          bucket = JsObjectArray.create();
+          handlersByBit.set(bit, bucket);
+        }
+        bucket.add(f);
+      }
+    }
+    if (f.eventName != null) {
+      bucket(handlersByName, f.eventName.toLowerCase()).add(f);
+    }
+    bucket(handlersByNamespace, f.nameSpace).add(f);
+  }
+
+  private static JsObjectArray<BindFunction> bucket(JsNamedArray<JsObjectArray<BindFunction>> index,
+      String key) {
+    JsObjectArray<BindFunction> bucket = index.get(key);
+    if (bucket == null) {
+      bucket = JsObjectArray.create();
+      index.put(key, bucket);
+    }
+    return bucket;
+  }
+
+  private void ensureIndexed() {
+    if (handlersByBit == null) {
+      handlersByBit = JsObjectArray.create();
+      handlersByName = JsNamedArray.create();
+      handlersByNamespace = JsNamedArray.create();
+      for (int i = 0, l = elementEvents.length(); i < l; i++) {
+        index(elementEvents.get(i));
+      }
+    }
   }
 
   public void die(String events, String cssSelector) {
@@ -555,22 +1375,67 @@ public class EventsListener implements EventListener {
    * it's useful for special events.
    */
   public void dispatchEvent(Event event, String eventName) {
+    dispatchEvent(event, eventName, GQuery.<Object[]> data(element, EVENT_DATA));
+  }
+
+  /**
+   * Dispatch an event in this element passing the data to the handlers. It does not go through
+   * the browser, so it is not propagated, and the original GWT listener is not called.
+   */
+  public void dispatchEvent(Event event, String eventName, Object[] handlerData) {
+    ensureIndexed();
     int typeInt = Event.getTypeInt(eventName);
-    Object[] handlerData = $(element).data(EVENT_DATA);
-    for (int i = 0, l = elementEvents.length(); i < l; i++) {
-      BindFunction listener = elementEvents.get(i);
-      String namespace = JsUtils.prop(event, "namespace");
-      boolean matchEV = listener != null && (listener.hasEventType(typeInt) || listener.isTypeOf(eventName));
+    JsObjectArray<BindFunction> byBit = typeInt != BITLESS && typeInt != 0
+        ? handlersByBit.get(Integer.numberOfTrailingZeros(typeInt)) : null;
+    JsObjectArray<BindFunction> byName = null;
+    if (eventName != null) {
+      // names are indexed in lower case, which native events already are
+      byName = handlersByName.get(eventName);
+      if (byName == null) {
+        byName = handlersByName.get(eventName.toLowerCase());
+      }
+    }
+    if (byBit == null && byName == null) {
+      return;
+    }
+
+    if (EventMetrics.enabled) {
+      EventMetrics.dispatched(eventName);
+    }
+    String namespace = JsUtils.prop(event, "namespace");
+    // Visit both buckets in binding order, handlers bound by name are in both of them.
+    // Lengths are computed before firing so as handlers bound while dispatching are not run.
+    for (int i = 0, j = 0, li = byBit == null ? 0 : byBit.length(),
+        lj = byName == null ? 0 : byName.length(); i < li || j < lj;) {
+      BindFunction listener;
+      if (j >= lj || i < li && byBit.get(i).order <= byName.get(j).order) {
+        listener = byBit.get(i++);
+        if (j < lj && byName.get(j) == listener) {
+          j++;
+        }
+      } else {
+        listener = byName.get(j++);
+      }
+      // Buckets might contain handlers whose type changed after unbinding some bits
+      boolean matchEV = listener.hasEventType(typeInt) || listener.isTypeOf(eventName);
       boolean matchNS = matchEV && (isNullOrEmpty(namespace) || listener.nameSpace.equals(namespace));
       if (matchEV && matchNS) {
-        if (!listener.fire(event, typeInt, eventName, handlerData)) {
+        if (!listener.fire(event, typeInt, eventName, handlerData, element, null)) {
           event.stopPropagation();
           event.preventDefault();
         }
+        if (isImmediatePropagationStopped(event)) {
+          break;
+        }
       }
     }
   }
 
+  // Set by the events created in Events.triggerHandlers, native events do not expose it
+  private static native boolean isImmediatePropagationStopped(Event e) /*-{
+    return !!e.immediatePropagationStopped;
+  }-*/;
+
   /**
    * Return the original gwt EventListener associated with this element, before gquery replaced it
    * to introduce its own event handler.
@@ -598,31 +1463,122 @@ public class EventsListener implements EventListener {
   public void live(int eventbits, String nameSpace, String eventName, String cssSelector,
       Object data, Function... funcs) {
     if (eventbits != BITLESS) {
-      liveBitEvent(eventbits, nameSpace, cssSelector, data, funcs);
+      liveBitEvent(eventbits, nameSpace, cssSelector, null, false, data, funcs);
     } else {
-      liveBitlessEvent(eventName, nameSpace, cssSelector, data, funcs);
+      liveBitlessEvent(eventName, nameSpace, cssSelector, null, false, data, funcs);
     }
   }
 
+  /**
+   * Bind a set of handlers in this element for the events fired in any of the elements passed,
+   * or in their descendants. All the elements share one listener per event type in this
+   * element instead of having an EventsListener each, so it is the preferred way to bind the
+   * same handlers to large sets of elements.
+   *
+   * Elements bound to the same handler, namespace and data are merged in one set. They are not
+   * referenced by this element, but keep their membership in their data.
+   *
+   * When <code>once</code> is true, handlers are executed only once for each element.
+   */
+  public void liveElements(String events, Element[] elements, Object data, boolean once,
+      Function... funcs) {
+    for (EventName ev : EventName.split(events)) {
+      int b = Event.getTypeInt(ev.eventName);
+      if (b != BITLESS) {
+        liveBitEvent(b, ev.nameSpace, null, elements, once, data, funcs);
+      } else {
+        liveBitlessEvent(ev.eventName, ev.nameSpace, null, elements, once, data, funcs);
+      }
+    }
+  }
+
+  /**
+   * Same than {@link #liveElements(String, Element[], Object, boolean, Function...)} but using
+   * event bits.
+   */
+  public void liveElements(int eventbits, String nameSpace, Element[] elements, Object data,
+      boolean once, Function... funcs) {
+    liveBitEvent(eventbits, nameSpace, null, elements, once, data, funcs);
+  }
+
+  /**
+   * Remove the handlers bound with <code>liveElements</code> for the elements passed. When the
+   * name is null or only has a namespace handlers of all events are removed, and when the
+   * function is null all handlers are removed.
+   */
+  public void dieElements(String events, Element[] elements, Function f) {
+    for (EventName ev : EventName.split(events == null ? "" : events)) {
+      dieElements(Event.getTypeInt(ev.eventName), ev.nameSpace, ev.eventName, elements, f);
+    }
+  }
+
+  public void dieElements(int eventbits, String nameSpace, String eventName, Element[] elements,
+      Function f) {
+    if (eventbits <= 0 && eventName != null && eventName.length() > 0) {
+      maybeRemoveElements(liveBindFunctionByEventName.get(eventName), BITLESS, eventName,
+          elements, nameSpace, f);
+    } else if (eventbits <= 0) {
+      for (String k : liveBindFunctionByEventType.keys()) {
+        int bits = Integer.parseInt(k);
+        maybeRemoveElements(liveBindFunctionByEventType.get(bits), bits, null, elements,
+            nameSpace, f);
+      }
+      for (String k : liveBindFunctionByEventName.keys()) {
+        maybeRemoveElements(liveBindFunctionByEventName.get(k), BITLESS, k, elements, nameSpace,
+            f);
+      }
+    } else {
+      for (int i = 0; i < 28; i++) {
+        int event = 1 << i;
+        if ((eventbits & event) == event) {
+          maybeRemoveElements(liveBindFunctionByEventType.get(event), event, null, elements,
+              nameSpace, f);
+        }
+      }
+    }
+  }
+
+  private void maybeRemoveElements(LiveBindFunction liveBindFunction, int eventbits,
+      String eventName, Element[] elements, String nameSpace, Function f) {
+    if (liveBindFunction != null) {
+      liveBindFunction.removeElements(elements, nameSpace, f);
+      if (liveBindFunction.isEmpty()) {
+        if (eventbits != BITLESS) {
+          liveBindFunctionByEventType.remove(eventbits);
+        } else {
+          liveBindFunctionByEventName.remove(eventName);
+        }
+      }
+    }
+  }
+
+  /**
+   * Delegate the handlers of a bitless event to the elements matching the selector, or to the
+   * elements passed when they are not null.
+   */
   private void liveBitlessEvent(String eventName, String nameSpace, String cssSelector,
-      Object data, Function... funcs) {
+      Element[] elements, boolean once, Object data, Function... funcs) {
     LiveBindFunction liveBindFunction = liveBindFunctionByEventName.get(eventName);
 
     if (liveBindFunction == null) {
       liveBindFunction = new LiveBindFunction(eventName, "live", data);
       sink(BITLESS, eventName);
-      elementEvents.add(liveBindFunction);
+      addHandler(liveBindFunction);
       liveBindFunctionByEventName.put(eventName, liveBindFunction);
     }
 
     for (Function f : funcs) {
-      liveBindFunction.addBindFunctionForSelector(cssSelector, new BindFunction(BITLESS, eventName,
-          nameSpace, f, data, -1));
+      BindFunction bindFunction = new BindFunction(BITLESS, eventName, nameSpace, f, data, -1);
+      if (elements != null) {
+        liveBindFunction.addElements(elements, bindFunction, once);
+      } else {
+        liveBindFunction.addBindFunctionForSelector(cssSelector, bindFunction);
+      }
     }
   }
 
-  private void liveBitEvent(int eventbits, String nameSpace, String cssSelector, Object data,
-      Function... funcs) {
+  private void liveBitEvent(int eventbits, String nameSpace, String cssSelector,
+      Element[] elements, boolean once, Object data, Function... funcs) {
     for (int i = 0; i < 28; i++) {
       int event = (int) Math.pow(2, i);
       if ((eventbits & event) == event) {
@@ -632,13 +1588,17 @@ public class EventsListener implements EventListener {
         if (liveBindFunction == null) {
           liveBindFunction = new LiveBindFunction(event, "live", data);
           sink(eventbits, null);
-          elementEvents.add(liveBindFunction);
+          addHandler(liveBindFunction);
           liveBindFunctionByEventType.put(event, liveBindFunction);
         }
 
         for (Function f : funcs) {
-          liveBindFunction.addBindFunctionForSelector(cssSelector, new BindFunction(event,
-              null, nameSpace, f, data, -1));
+          BindFunction bindFunction = new BindFunction(event, null, nameSpace, f, data, -1);
+          if (elements != null) {
+            liveBindFunction.addElements(elements, bindFunction, once);
+          } else {
+            liveBindFunction.addBindFunctionForSelector(cssSelector, bindFunction);
+          }
         }
       }
     }
@@ -670,6 +1630,13 @@ public class EventsListener implements EventListener {
   }
 
   public void unbind(int eventbits, String namespace, String eventName, Function f) {
+    if (!isNullOrEmpty(namespace)) {
+      ensureIndexed();
+      if (handlersByNamespace.get(namespace) == null) {
+        // nothing bound with this namespace
+        return;
+      }
+    }
     JsObjectArray<BindFunction> newList = JsObjectArray.createArray().cast();
     for (int i = 0; i < elementEvents.length(); i++) {
       BindFunction listener = elementEvents.get(i);
@@ -679,15 +1646,21 @@ public class EventsListener implements EventListener {
       boolean matchFC = f == null || listener.isEquals(f);
 
       if (matchNS && matchEV && matchEVN && matchFC) {
+        if (listener.shared) {
+          // other elements keep the shared one unchanged
+          listener = listener.copy();
+        }
         int currentEventbits = listener.unsink(eventbits);
         if (currentEventbits == 0) {
           // the BindFunction doesn't listen anymore on any events
+          listener.cancel(element);
           continue;
         }
       }
       newList.add(listener);
     }
-    elementEvents =  newList;
+    elementEvents = newList;
+    handlersByBit = null;
   }
 
   /**
@@ -732,16 +1705,39 @@ public class EventsListener implements EventListener {
 
   public void clean() {
     cleanGQListeners(element);
+    for (int i = 0, l = elementEvents.length(); i < l; i++) {
+      elementEvents.get(i).cancel(element);
+    }
     elementEvents = JsObjectArray.createArray().cast();
+    handlersByBit = null;
     liveBindFunctionByEventType = JsMap.create();
     eventBits = 0;
+    nativeBits = 0;
+    ObserverSpecialEvent.unobserveAll(element);
   }
 
   private void sink(int eventbits, String eventName) {
+    sink(eventbits, eventName, null);
+  }
+
+  private void sink(int eventbits, String eventName, ListenerOptions options) {
     // ensure that the gwtQuery's event listener is set as event listener of the element
     DOM.setEventListener((com.google.gwt.user.client.Element) element, this);
 
-    if (eventbits != BITLESS) {
+    boolean passive = options != null && options.getPassive() != null ? options.getPassive()
+        : isScrollBlocking(eventName);
+    boolean capture = options != null && options.getCapture() != null ? options.getCapture()
+        : eventbits == BITLESS;
+
+    if (eventbits != BITLESS && eventName != null && (options != null || passive)) {
+      // GWT does not support listener options, so the event is listened natively
+      nativeBits |= eventbits;
+      int sunk = DOM.getEventsSunk((com.google.gwt.user.client.Element) element);
+      if ((sunk & eventbits) != 0) {
+        DOM.sinkEvents((com.google.gwt.user.client.Element) element, sunk & ~eventbits);
+      }
+      sinkNativeEvent(element, eventName, capture, passive);
+    } else if (eventbits != BITLESS) {
       eventBits |= eventbits;
 
       if ((eventBits | Event.FOCUSEVENTS) == Event.FOCUSEVENTS
@@ -749,10 +1745,10 @@ public class EventsListener implements EventListener {
           && element.getAttribute("tabIndex").length() == 0) {
         element.setAttribute("tabIndex", "0");
       }
-      DOM.sinkEvents((com.google.gwt.user.client.Element) element, eventBits
-          | DOM.getEventsSunk((com.google.gwt.user.client.Element) element));
+      DOM.sinkEvents((com.google.gwt.user.client.Element) element, (eventBits
+          | DOM.getEventsSunk((com.google.gwt.user.client.Element) element)) & ~nativeBits);
     } else {
-      sinkBitlessEvent(element, eventName);
+      sinkNativeEvent(element, eventName, capture, passive);
     }
   }
 
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.query.client.plugins.events;
+
+/**
+ * Object used to configure the native listeners registered when binding events by name.
+ *
+ * Listeners of scroll-blocking events (touchstart, touchmove and wheel) are passive by default,
+ * so as the browser can scroll without waiting for the handlers. Set passive to false when
+ * handlers need to call <code>preventDefault</code>.
+ */
+public class ListenerOptions {
+
+  private Boolean capture;
+
+  private boolean once;
+
+  private Boolean passive;
+
+  public ListenerOptions() {
+  }
+
+  /**
+   * Return whether the listener is registered for the capture phase, or null to use the default:
+   * events without bit are captured, the rest are listened in the bubbling phase.
+   */
+  public Boolean getCapture() {
+    return capture;
+  }
+
+  /**
+   * Return whether handlers are executed only once for each element.
+   */
+  public boolean getOnce() {
+    return once;
+  }
+
+  /**
+   * Return whether the listener is passive, or null to use the default: passive for
+   * scroll-blocking events.
+   */
+  public Boolean getPassive() {
+    return passive;
+  }
+
+  /**
+   * Listen to the event in the capture phase, so as handlers are run before the handlers of
+   * descendant elements.
+   */
+  public ListenerOptions setCapture(boolean capture) {
+    this.capture = capture;
+    return this;
+  }
+
+  /**
+   * Execute handlers only once for each element.
+   */
+  public ListenerOptions setOnce(boolean once) {
+    this.once = once;
+    return this;
+  }
+
+  /**
+   * Tell the browser that handlers never call <code>preventDefault</code>, so as it does not
+   * have to wait for them to scroll.
+   */
+  public ListenerOptions setPassive(boolean passive) {
+    this.passive = passive;
+    return this;
+  }
+}
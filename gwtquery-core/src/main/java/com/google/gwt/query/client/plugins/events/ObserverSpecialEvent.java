@@ -0,0 +1,271 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.query.client.plugins.events;
+
+import static com.google.gwt.query.client.GQuery.$;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.NativeEvent;
+import com.google.gwt.dom.client.Node;
+import com.google.gwt.query.client.Function;
+import com.google.gwt.query.client.GQuery;
+import com.google.gwt.query.client.js.JsUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Special events fired when elements change their size, backed by a ResizeObserver, or when
+ * they enter or leave the viewport, backed by an IntersectionObserver.
+ *
+ * All elements share one observer of each kind, elements are observed when the first handler
+ * is bound and unobserved when the last one is removed. Handlers receive the observer entry as
+ * their first argument. Resize is not fired for the initial size reported when the element starts
+ * being observed, while enterviewport is fired at that moment if the element is already in the
+ * viewport. Events do not bubble, so they can not be delegated.
+ *
+ * Resize handlers bound to the window are registered as normal resize listeners. Nothing is
+ * observed in browsers without the observers.
+ */
+class ObserverSpecialEvent implements SpecialEvent {
+
+  // element data set once the initial size is reported, and while the element is in the viewport
+  private static final String RESIZE_OBSERVED = "__gqResizeObserved";
+  private static final String IN_VIEWPORT = "__gqInViewport";
+
+  private static JavaScriptObject resizeObserver;
+  private static JavaScriptObject intersectionObserver;
+
+  // Elements registered in each observer, held through weak references so as the registry does
+  // not retain them. Each element keeps its reference in its data, so as it is removed in constant
+  // time. Nothing is registered in browsers without WeakRef
+  private static final JavaScriptObject resizeObserved = createRegistry();
+  private static final JavaScriptObject viewportObserved = createRegistry();
+  private static final String RESIZE_REF = "__gqResizeRef";
+  private static final String VIEWPORT_REF = "__gqViewportRef";
+
+  private final String type;
+  private final boolean viewport;
+
+  ObserverSpecialEvent(String type) {
+    this.type = type;
+    this.viewport = !EventsListener.RESIZE.equals(type);
+  }
+
+  @Override
+  public void add(Element e, String eventType, String nameSpace, Object data, Function f) {
+    // Nothing to do, let gQuery use default events mechanism
+  }
+
+  @Override
+  public boolean hasHandlers(Element e) {
+    return hasHandlers(e, viewport);
+  }
+
+  @Override
+  public void remove(Element e, String eventType, String nameSpace, Function f) {
+    if (isObservable(e) && !hasHandlers(e)) {
+      unobserve(e, viewport);
+    }
+  }
+
+  @Override
+  public boolean setup(Element e) {
+    if (isObservable(e) && !hasHandlers(e)) {
+      observe(e, viewport);
+    }
+    return false;
+  }
+
+  @Override
+  public boolean tearDown(Element e) {
+    return false;
+  }
+
+  private static boolean hasHandlers(Element e, boolean viewport) {
+    if (!EventsListener.hasListener(e)) {
+      return false;
+    }
+    EventsListener l = EventsListener.getInstance(e);
+    return viewport
+        ? l.hasHandlers(EventsListener.BITLESS, EventsListener.ENTERVIEWPORT)
+            || l.hasHandlers(EventsListener.BITLESS, EventsListener.LEAVEVIEWPORT)
+        : l.hasHandlers(EventsListener.BITLESS, EventsListener.RESIZE);
+  }
+
+  private static boolean isObservable(Element e) {
+    return e != null && !JsUtils.isWindow(e) && e.getNodeType() == Node.ELEMENT_NODE;
+  }
+
+  /**
+   * Stop observing the element, it is called when all its handlers are removed at once.
+   */
+  static void unobserveAll(Element e) {
+    if (isObservable(e)) {
+      unobserve(e, false);
+      unobserve(e, true);
+    }
+  }
+
+  private static void observe(Element e, boolean viewport) {
+    if (viewport) {
+      if (intersectionObserver == null) {
+        intersectionObserver = createIntersectionObserver();
+      }
+      if (intersectionObserver != null) {
+        observe(intersectionObserver, e);
+        register(viewportObserved, e, VIEWPORT_REF);
+      }
+    } else {
+      if (resizeObserver == null) {
+        resizeObserver = createResizeObserver();
+      }
+      if (resizeObserver != null) {
+        observe(resizeObserver, e);
+        register(resizeObserved, e, RESIZE_REF);
+      }
+    }
+  }
+
+  /**
+   * Return the elements registered in the observers which have not been garbage-collected, an
+   * element observed by both of them is returned twice. It is empty in browsers without WeakRef.
+   */
+  static List<Element> observedElements() {
+    JsArray<Element> elements = JavaScriptObject.createArray().cast();
+    collect(resizeObserved, elements);
+    collect(viewportObserved, elements);
+    List<Element> ret = new ArrayList<>(elements.length());
+    for (int i = 0, l = elements.length(); i < l; i++) {
+      ret.add(elements.get(i));
+    }
+    return ret;
+  }
+
+  private static void register(JavaScriptObject registry, Element e, String key) {
+    if (registry != null && GQuery.data(e, key) == null) {
+      GQuery.data(e, key, register(registry, e));
+    }
+  }
+
+  private static void unregister(JavaScriptObject registry, Element e, String key) {
+    JavaScriptObject ref = GQuery.data(e, key);
+    if (ref != null) {
+      unregister(registry, ref);
+      $(e).removeData(key);
+    }
+  }
+
+  private static void unobserve(Element e, boolean viewport) {
+    JavaScriptObject observer = viewport ? intersectionObserver : resizeObserver;
+    if (observer != null) {
+      unobserve(observer, e);
+      unregister(viewport ? viewportObserved : resizeObserved, e,
+          viewport ? VIEWPORT_REF : RESIZE_REF);
+      $(e).removeData(viewport ? IN_VIEWPORT : RESIZE_OBSERVED);
+    }
+  }
+
+  private static void resized(Element e, JavaScriptObject entry) {
+    // the first notification just reports the initial size
+    if (GQuery.dataBoolean(e, RESIZE_OBSERVED)) {
+      fire(e, EventsListener.RESIZE, entry);
+    } else {
+      GQuery.dataBoolean(e, RESIZE_OBSERVED, true);
+    }
+  }
+
+  private static void intersected(Element e, JavaScriptObject entry, boolean visible) {
+    // elements start out of the viewport, so as the first notification only fires enter
+    if (GQuery.dataBoolean(e, IN_VIEWPORT) != visible) {
+      GQuery.dataBoolean(e, IN_VIEWPORT, visible);
+      fire(e, visible ? EventsListener.ENTERVIEWPORT : EventsListener.LEAVEVIEWPORT, entry);
+    }
+  }
+
+  private static void fire(Element e, String type, JavaScriptObject entry) {
+    if (!hasHandlers(e, !EventsListener.RESIZE.equals(type))) {
+      // handlers were removed without going through this special event, like unbinding a
+      // namespace
+      unobserve(e, !EventsListener.RESIZE.equals(type));
+      return;
+    }
+    // the event does not bubble, so as resize handlers in the window are not run
+    NativeEvent evt = GQuery.document.createHtmlEvent(type, false, false);
+    GQuery.data(e, EventsListener.EVENT_DATA, new Object[]{entry});
+    e.dispatchEvent(evt);
+    $(e).removeData(EventsListener.EVENT_DATA);
+  }
+
+  private static native JavaScriptObject createResizeObserver() /*-{
+    if (!$wnd.ResizeObserver) {
+      return null;
+    }
+    return new $wnd.ResizeObserver($entry(function(entries) {
+      for (var i = 0; i < entries.length; i++) {
+        @com.google.gwt.query.client.plugins.events.ObserverSpecialEvent::resized(*)(
+            entries[i].target, entries[i]);
+      }
+    }));
+  }-*/;
+
+  private static native JavaScriptObject createIntersectionObserver() /*-{
+    if (!$wnd.IntersectionObserver) {
+      return null;
+    }
+    return new $wnd.IntersectionObserver($entry(function(entries) {
+      for (var i = 0; i < entries.length; i++) {
+        @com.google.gwt.query.client.plugins.events.ObserverSpecialEvent::intersected(*)(
+            entries[i].target, entries[i], entries[i].isIntersecting);
+      }
+    }));
+  }-*/;
+
+  private static native JavaScriptObject createRegistry() /*-{
+    return $wnd.WeakRef && $wnd.Set ? new $wnd.Set() : null;
+  }-*/;
+
+  private static native JavaScriptObject register(JavaScriptObject registry, Element e) /*-{
+    var ref = new $wnd.WeakRef(e);
+    registry.add(ref);
+    return ref;
+  }-*/;
+
+  private static native void unregister(JavaScriptObject registry, JavaScriptObject ref) /*-{
+    registry['delete'](ref);
+  }-*/;
+
+  private static native void collect(JavaScriptObject registry, JsArray<Element> ret) /*-{
+    if (registry) {
+      registry.forEach(function(ref) {
+        var e = ref.deref();
+        if (e) {
+          ret.push(e);
+        } else {
+          registry['delete'](ref);
+        }
+      });
+    }
+  }-*/;
+
+  private static native void observe(JavaScriptObject observer, Element e) /*-{
+    observer.observe(e);
+  }-*/;
+
+  private static native void unobserve(JavaScriptObject observer, Element e) /*-{
+    observer.unobserve(e);
+  }-*/;
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwt.query.client.plugins.events;
+
+import com.google.gwt.animation.client.AnimationScheduler;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationCallback;
+import com.google.gwt.animation.client.AnimationScheduler.AnimationHandle;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.query.client.Function;
+import com.google.gwt.query.client.GQuery;
+import com.google.gwt.user.client.Event;
+import com.google.gwt.user.client.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event handler which limits the rate the wrapped handler is executed, it is useful with
+ * high-frequency events like mousemove, scroll, resize or input.
+ *
+ * The wrapped handler always receives the latest event. Calls executed later than the event are
+ * not able to prevent its default action. The rate is limited per element, so when the wrapper
+ * is bound to many elements the events of one do not delay or discard the ones of the others.
+ *
+ * Unbinding the wrapped handler also unbinds the wrapper, and pending calls of an element are
+ * cancelled when the wrapper is unbound from it.
+ */
+public class RateLimitedFunction extends Function {
+
+  /**
+   * How the calls to the wrapped handler are limited.
+   */
+  public enum Mode {
+    /**
+     * Run the handler at the first event, then at most once per interval.
+     */
+    THROTTLE,
+    /**
+     * Run the handler once events stop arriving during the interval.
+     */
+    DEBOUNCE,
+    /**
+     * Run the handler at most once per animation frame.
+     */
+    FRAME
+  }
+
+  /**
+   * The calls of the handler for one element, stored in the element data.
+   */
+  private class Limiter {
+    final Element element;
+    Event lastEvent;
+    Object[] lastArguments;
+    double lastRun = Double.NEGATIVE_INFINITY;
+    Timer timer;
+    AnimationHandle frame;
+
+    Limiter(Element element) {
+      this.element = element;
+    }
+
+    boolean isPending() {
+      return lastEvent != null;
+    }
+
+    void run() {
+      Event e = lastEvent;
+      Object[] arg = lastArguments;
+      lastEvent = null;
+      lastArguments = null;
+      frame = null;
+      pending.remove(this);
+      lastRun = Duration.currentTimeMillis();
+      if (e != null) {
+        handler.fe(e, arg);
+      }
+    }
+
+    void cancel() {
+      if (timer != null) {
+        timer.cancel();
+      }
+      if (frame != null) {
+        frame.cancel();
+        frame = null;
+      }
+      lastEvent = null;
+      lastArguments = null;
+      pending.remove(this);
+    }
+  }
+
+  private static int counter = 0;
+
+  private final Mode mode;
+  private final int millis;
+  private final Function handler;
+  // Key of the element data where the limiter of each element is stored
+  private final String dataKey = "__gqRateLimited" + counter++;
+  // Limiters with a call pending, so as they can be cancelled
+  private final List<Limiter> pending = new ArrayList<>();
+
+  /**
+   * Wrap the handler, the interval is ignored in the {@link Mode#FRAME} mode.
+   */
+  public RateLimitedFunction(Mode mode, int millis, Function handler) {
+    assert handler != null : "handler cannot be null";
+    this.mode = mode;
+    this.millis = Math.max(0, millis);
+    this.handler = handler;
+  }
+
+  @Override
+  public boolean f(Event e, Object... arg) {
+    Element element = e.getCurrentEventTarget().cast();
+    Limiter l = GQuery.data(element, dataKey);
+    if (l == null) {
+      l = GQuery.data(element, dataKey, new Limiter(element));
+    }
+    final Limiter limiter = l;
+
+    double now = Duration.currentTimeMillis();
+    if (mode == Mode.THROTTLE && !limiter.isPending() && now - limiter.lastRun >= millis) {
+      limiter.lastRun = now;
+      return handler.fe(e, arg);
+    }
+    boolean wasPending = limiter.isPending();
+    if (!wasPending) {
+      pending.add(limiter);
+    }
+    // Copy the event so as the current target is still available when running later
+    limiter.lastEvent = GqEvent.create(e);
+    limiter.lastArguments = arg;
+    if (mode == Mode.FRAME) {
+      if (limiter.frame == null) {
+        limiter.frame = AnimationScheduler.get().requestAnimationFrame(new AnimationCallback() {
+          public void execute(double timestamp) {
+            limiter.run();
+          }
+        });
+      }
+    } else if (mode == Mode.DEBOUNCE || !wasPending) {
+      if (limiter.timer == null) {
+        limiter.timer = new Timer() {
+          public void run() {
+            limiter.run();
+          }
+        };
+      }
+      limiter.timer.schedule(mode == Mode.DEBOUNCE ? millis
+          : (int) (millis - (now - limiter.lastRun)));
+    }
+    return true;
+  }
+
+  /**
+   * Discard the pending calls of all the elements, if any.
+   */
+  public void cancel() {
+    while (!pending.isEmpty()) {
+      pending.get(pending.size() - 1).cancel();
+    }
+  }
+
+  /**
+   * Discard the pending call of the element, if any, and forget its rate.
+   */
+  public void cancel(Element e) {
+    Limiter limiter = GQuery.data(e, dataKey);
+    if (limiter != null) {
+      limiter.cancel();
+      GQuery.$(e).removeData(dataKey);
+    }
+  }
+
+  /**
+   * Return the wrapped handler.
+   */
+  public Function getHandler() {
+    return handler;
+  }
+}
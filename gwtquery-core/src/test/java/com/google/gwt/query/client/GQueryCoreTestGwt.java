@@ -47,6 +47,8 @@ import com.google.gwt.query.client.impl.SelectorEngineSizzle;
 import com.google.gwt.query.client.js.JsNamedArray;
 import com.google.gwt.query.client.js.JsNodeArray;
 import com.google.gwt.query.client.js.JsUtils;
+import com.google.gwt.query.client.plugins.Events;
+import com.google.gwt.query.client.plugins.effects.Transitions;
 import com.google.gwt.user.client.DOM;
 import com.google.gwt.user.client.Event;
 import com.google.gwt.user.client.Window;
@@ -1256,6 +1258,75 @@ public class GQueryCoreTestGwt extends GWTTestCase {
     assertTrue(g.height() > 0);
   }
 
+  public void testBulkGeometry() {
+    $(e).html(
+        "<div class='m' style='border: 1px solid red; padding: 10px; margin:10px; width: 100px; height: 100px'>1</div>"
+        + "<div id='hidden' style='display: none'><div class='m' style='padding: 5px; width: 50px; height: 20px'>2</div>"
+        + "<div class='m' style='width: 30px; height: 40px'>3</div></div>");
+    GQuery g = $(".m", e);
+    assertEquals(3, g.size());
+
+    double[] sizes = g.sizes("width", "height", "clientWidth", "offsetHeight");
+    assertEquals(12, sizes.length);
+    assertEquals((double) g.width(), sizes[0]);
+    assertEquals((double) g.height(), sizes[1]);
+    assertEquals((double) g.innerWidth(), sizes[2]);
+    assertEquals((double) g.outerHeight(), sizes[3]);
+
+    // elements inside a hidden ancestor are measured too
+    assertEquals(50d, sizes[4]);
+    assertEquals(20d, sizes[5]);
+    assertEquals(60d, sizes[6]);
+    assertEquals(30d, sizes[7]);
+    assertEquals(30d, sizes[8]);
+    assertEquals(40d, sizes[9]);
+
+    // hidden ancestors are restored after measuring
+    assertEquals("none", $("#hidden", e).css("display", false));
+
+    double[] rects = g.rects();
+    assertEquals(12, rects.length);
+    Offset offset = g.offset();
+    assertEquals((double) offset.left, rects[0]);
+    assertEquals((double) offset.top, rects[1]);
+    assertEquals(122d, rects[2]);
+    assertEquals(122d, rects[3]);
+
+    double[] offsets = g.offsets();
+    assertEquals(rects[0], offsets[0]);
+    assertEquals(rects[1], offsets[1]);
+
+    double[] positions = g.positions();
+    Offset position = g.position();
+    assertEquals((double) position.left, positions[0]);
+    assertEquals((double) position.top, positions[1]);
+  }
+
+  public void testBulkPositionsInHiddenAncestors() {
+    $(e).html(
+        "<div id='h1' style='display: none; position: relative; border: 2px solid; padding: 7px'>"
+        + "<div class='p' style='margin: 3px 4px'>1</div>"
+        + "<div class='p' style='margin-left: 11px; border: 1px solid'>2</div></div>"
+        + "<div style='position: relative; border: 3px solid; padding: 5px'>"
+        + "<div id='h2' style='display: none; margin: 5px'><p class='p' style='margin: 2px'>3</p>"
+        + "</div></div>");
+    GQuery g = $(".p", e);
+    assertEquals(3, g.size());
+
+    // offset parents are resolved while the ancestors are shown, even when they are not
+    // positioned, like the second hidden ancestor
+    double[] positions = g.positions();
+    assertEquals("none", $("#h1", e).css("display", false));
+    assertEquals("none", $("#h2", e).css("display", false));
+
+    $("#h1, #h2", e).css("display", "block");
+    for (int i = 0; i < g.size(); i++) {
+      Offset position = g.eq(i).position();
+      assertEquals((double) position.left, positions[i * 2]);
+      assertEquals((double) position.top, positions[i * 2 + 1]);
+    }
+  }
+
   public void testWrapMethod() {
     String content = "<p>Test Paragraph.</p>";
     String wrapper = "<div id=\"content\">Content</div>";
@@ -1744,6 +1815,57 @@ public class GQueryCoreTestGwt extends GWTTestCase {
 
   }
 
+  public void testTraversalWithSharedAncestors() {
+    String html = "<table id='grid'><tbody><tr class='row'><td><b>1</b></td><td><b>2</b></td></tr>"
+        + "<tr class='row'><td><b>3</b></td><td><b>4</b></td></tr></tbody></table>"
+        + "<ul><li class='a'>1</li><li>2</li><li class='a'>3</li><li>4</li><li class='a'>5</li></ul>";
+    $(e).html(html);
+
+    GQuery rows = $("b", e).closest("tr");
+    assertEquals(2, rows.length());
+    assertEquals("row", rows.get(0).getClassName());
+    assertEquals(2, $("b", e).closest(".row").length());
+    assertEquals(1, $("b", e).closest("table").length());
+    assertEquals(0, $("b", e).closest("table", $("tbody", e).get(0)).length());
+    assertEquals(4, $("b", e).closest("td").length());
+
+    assertEquals(2, $("b", e).parents("tr").length());
+    assertEquals(1, $("b", e).parents("#grid").length());
+    assertEquals(3, $("b", e).parents("tr, table").length());
+
+    GQuery lis = $("li", e);
+    assertEquals(4, lis.nextAll().length());
+    assertEquals(2, lis.nextAll(".a").length());
+    assertEquals(4, lis.prevAll().length());
+    assertEquals(2, lis.prevAll(".a").length());
+    assertEquals(2, $("li:eq(0), li:eq(1)", e).nextUntil("li:eq(3)").length());
+  }
+
+  public void testParentsWithFiltersMatchesParentsFilter() {
+    String html = "<div class='a'><div class='b'><p class='a'><span>1</span></p>"
+        + "<p><span>2</span><i><span>3</span></i></p></div></div><div class='b'><span>4</span></div>";
+    $(e).html(html);
+
+    GQuery spans = $("span", e);
+    for (String sel : new String[] {"div", ".a", ".b", "p, .a", "i, div.b", "*", "html", "body"}) {
+      GQuery expected = spans.parents().filter(sel);
+      GQuery actual = spans.parents(sel);
+      assertEquals(sel, expected.length(), actual.length());
+      for (int i = 0; i < expected.length(); i++) {
+        assertEquals(sel, expected.get(i), actual.get(i));
+      }
+    }
+    assertEquals(0, spans.parents("html").length());
+    assertEquals(1, spans.parents("body").length());
+    assertEquals(0, spans.parents(new String[0]).length());
+
+    // Document order, outer ancestors first
+    GQuery divs = $("span:first", e).parents("div");
+    assertEquals(2, divs.length());
+    assertEquals("a", divs.get(0).getClassName());
+    assertEquals("b", divs.get(1).getClassName());
+  }
+
   public void testClosestMethodWithArrayOfString(){
 
     String html = "<div id='mainDiv'><div id='subDiv' class='test'><div id='subSubDiv'><p id='mainP'><span id='testSpan' class='test'><input id='firstInput' type='text'></input></span></p></div></div></div>";
@@ -2083,4 +2205,173 @@ public class GQueryCoreTestGwt extends GWTTestCase {
 
     assertEquals(1, value.intValue());
   }
+
+  public void testHasData() {
+    $(e).html("<div id='target'></div>");
+    Element target = $("#target", e).get(0);
+    assertFalse(GQuery.hasData(target));
+
+    $(target).data("a", 1).data("b", "b");
+    assertTrue(GQuery.hasData(target));
+    assertEquals(1, (int) $(target).data("a", Integer.class));
+
+    $(target).removeData("a");
+    assertTrue(GQuery.hasData(target));
+    $(target).removeData("b");
+    assertFalse(GQuery.hasData(target));
+
+    // data is not shared with other elements replacing the removed ones
+    $(target).data("a", 1);
+    $(e).html("<div id='target'></div>");
+    assertFalse(GQuery.hasData($("#target", e).get(0)));
+    assertEquals(1, (int) $(target).data("a", Integer.class));
+
+    $(window).data("w", "w");
+    assertTrue(GQuery.hasData(window));
+    $(window).removeData("w");
+    assertFalse(GQuery.hasData(window));
+  }
+
+  public void testDataPrimitives() {
+    $(e).html("<div class='d'></div><div class='d'></div>");
+    GQuery g = $(".d", e);
+
+    assertEquals(0, g.dataInt("count"));
+    assertEquals(0d, g.dataDouble("pos"));
+    assertFalse(g.dataBoolean("flag"));
+
+    g.dataInt("count", 3).dataDouble("pos", 0.5).dataBoolean("flag", true);
+    Element second = g.get(1);
+    assertEquals(3, GQuery.dataInt(second, "count"));
+    assertEquals(0.5, GQuery.dataDouble(second, "pos"));
+    assertTrue(GQuery.dataBoolean(second, "flag"));
+
+    // Values are shared with the boxed data store
+    assertEquals(3, (int) g.data("count", Integer.class));
+    assertEquals(Boolean.TRUE, g.data("flag", Boolean.class));
+    g.data("count", 7);
+    assertEquals(7, g.dataInt("count"));
+
+    g.dataBoolean("flag", false);
+    assertFalse(g.dataBoolean("flag"));
+
+    g.removeData("count").removeData("pos").removeData("flag");
+    assertFalse(GQuery.hasData(second));
+  }
+
+  public void testMemoryReport() {
+    $(e).html("<div id='parent'><p>a</p><p>b</p><span>c</span></div>");
+    GQuery parent = $("#parent", e);
+
+    MemoryReport report = parent.memoryReport();
+    assertEquals(4, report.elements);
+    assertEquals(0, report.approxBytes());
+
+    $("p", e).data("k", "v").click(new Function() {
+    });
+    parent.delegate("span", "click", new Function() {
+    }).delegate("p", "click", new Function() {
+    });
+    parent.delay(1000);
+
+    report = parent.memoryReport();
+    assertEquals(4, report.elements);
+    // p elements and the delay queue in parent
+    assertEquals(3, report.dataEntries);
+    assertEquals(3, report.listeners);
+    assertEquals(2, report.handlers);
+    assertEquals(1, report.liveBindFunctions);
+    assertEquals(2, report.liveHandlers);
+    assertEquals(1, report.queuedFunctions);
+    assertTrue(report.approxBytes() > 0);
+    assertEquals(0, report.detached.size());
+
+    // Elements removed without cleaning are reported as detached
+    Element p = $("p", e).get(0);
+    p.removeFromParent();
+    report = $(p).memoryReport();
+    assertEquals(1, report.detached.size());
+    assertEquals(p, report.detached.get(0));
+
+    // remove() cleans all the subtree
+    parent.stop(true);
+    $(p).remove();
+    parent.remove();
+    assertEquals(0, $(p).memoryReport().approxBytes());
+    assertEquals(0, parent.memoryReport().approxBytes());
+  }
+
+  public void testMemoryReportRetainedElements() {
+    $(e).html("<p id='m1'>a</p><p id='m2'>b</p>");
+    Element m1 = $("#m1", e).get(0);
+    Element m2 = $("#m2", e).get(0);
+    MemoryReport before = $(document).memoryReport();
+
+    // a handler of the document referencing m1, and m2 in a set delegated to the body
+    $(document).bind("custom.mr", m1, new Function() {
+    });
+    $(m2).as(Events.Events).delegated().bind("click.mr", null, new Function() {
+    });
+    MemoryReport report = $(document).memoryReport();
+    assertEquals(before.elementSets + 1, report.elementSets);
+    assertEquals(before.elementSetMembers + 1, report.elementSetMembers);
+    assertEquals(before.orphanedEntries, report.orphanedEntries);
+    assertFalse(report.detached.contains(m1));
+
+    // elements removed without cleaning are found through the structures retaining them
+    m1.removeFromParent();
+    m2.removeFromParent();
+    report = $(document).memoryReport();
+    assertTrue(report.detached.contains(m1));
+    assertTrue(report.orphanedEntries >= before.orphanedEntries + 2);
+
+    $(document).unbind(".mr");
+    $(m2).as(Events.Events).delegated().unbind("click.mr");
+    report = $(document).memoryReport();
+    assertFalse(report.detached.contains(m1));
+    assertEquals(before.elementSets, report.elementSets);
+    assertEquals(before.elementSetMembers, report.elementSetMembers);
+  }
+
+  public void testPluginViewsAreReused() {
+    $(e).html("<div class='row'>1</div><div class='row'>2</div>");
+    GQuery g = $(".row", e);
+
+    // Repeated conversions in a loop must not allocate new plugin instances
+    Object effects = g.as(GQuery.Effects);
+    Object events = g.as(GQuery.Events);
+    for (int i = 0; i < 1000; i++) {
+      assertSame(effects, g.as(GQuery.Effects));
+      assertSame(events, g.as(GQuery.Events));
+    }
+    assertEquals(2, g.as(GQuery.Effects).size());
+
+    // Subclasses do not inherit the reuse of their parent plugin
+    Object transitions = g.as(Transitions.Transitions);
+    assertNotSame(transitions, g.as(Transitions.Transitions));
+    assertSame(effects, g.as(GQuery.Effects));
+
+    // Modifying the matched set invalidates the cached views
+    g.setArray($(".row", e).eq(0).get());
+    assertNotSame(effects, g.as(GQuery.Effects));
+    assertEquals(1, g.as(GQuery.Effects).size());
+  }
+
+  public void testStatelessFunctions() {
+    $(e).html("<p id='a'>0</p><p id='b'>1</p><p>2</p><p id='c'>3</p>");
+    GQuery ps = $("p", e);
+
+    final StringBuilder visited = new StringBuilder();
+    ps.eachElement((el, i) -> visited.append(i).append(el.getInnerText()));
+    assertEquals("00112233", visited.toString());
+
+    List<String> ids = ps.mapElements((el, i) -> el.getId().isEmpty() ? null : el.getId());
+    assertEquals(Arrays.asList("a", "b", "c"), ids);
+
+    GQuery odd = ps.filter((el, i) -> i % 2 == 1);
+    assertEquals(2, odd.size());
+    assertEquals("b", odd.get(0).getId());
+    assertEquals("c", odd.get(1).getId());
+    assertEquals(4, odd.end().size());
+  }
 }
@@ -30,6 +30,8 @@ import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.HTML;
 import com.google.gwt.user.client.ui.RootPanel;
 
+import java.util.List;
+
 /**
  * Test class for testing deferred and callbacks stuff.
  */
@@ -95,6 +97,54 @@ public class GQueryDeferredTestGwt extends GWTTestCase {
       });
   }
 
+  public void testEachAsyncInChunks() {
+    for (int i = 0; i < 500; i++) {
+      $(e).append("<span>" + i + "</span>");
+    }
+    final int[] processed = {0};
+    final int[] notifications = {0};
+
+    delayTestFinish(5000);
+    $("span", e).eachAsync(1, new Function() {
+      public void f(com.google.gwt.dom.client.Element elm) {
+        processed[0]++;
+      }
+    }).progress(new Function() {
+      public void f() {
+        notifications[0]++;
+        int done = this.<Integer> arguments(0);
+        assertTrue(done <= 500);
+      }
+    }).done(new Function() {
+      public void f() {
+        assertEquals(500, processed[0]);
+        assertTrue(notifications[0] > 0);
+        finishTest();
+      }
+    });
+    // Nothing has been processed synchronously
+    assertEquals(0, processed[0]);
+  }
+
+  public void testMapAsync() {
+    $(e).html("<p>a</p><p>b</p><p>c</p>");
+
+    delayTestFinish(5000);
+    $("p", e).mapAsync(new Function() {
+      public Object f(com.google.gwt.dom.client.Element elm, int i) {
+        return i == 1 ? null : $(elm).text();
+      }
+    }).done(new Function() {
+      public void f() {
+        List<?> values = arguments(0);
+        assertEquals(2, values.size());
+        assertEquals("a", values.get(0));
+        assertEquals("c", values.get(1));
+        finishTest();
+      }
+    });
+  }
+
   int progress = 0;
   public void testPromiseFunction() {
     delayTestFinish(3000);
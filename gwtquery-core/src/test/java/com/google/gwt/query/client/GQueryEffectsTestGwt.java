@@ -18,6 +18,7 @@ package com.google.gwt.query.client;
 import static com.google.gwt.query.client.GQuery.$;
 import static com.google.gwt.query.client.GQuery.$$;
 import static com.google.gwt.query.client.GQuery.Effects;
+import static com.google.gwt.query.client.plugins.Effects.activeAnimations;
 
 import com.google.gwt.core.client.Scheduler;
 import com.google.gwt.core.client.Scheduler.RepeatingCommand;
@@ -27,14 +28,17 @@ import com.google.gwt.junit.Platform;
 import com.google.gwt.junit.client.GWTTestCase;
 import com.google.gwt.query.client.GQuery.Offset;
 import com.google.gwt.query.client.plugins.Effects.GQAnimation;
+import com.google.gwt.query.client.plugins.effects.Fx;
 import com.google.gwt.query.client.plugins.effects.Fx.ColorFx;
 import com.google.gwt.query.client.plugins.effects.Fx.TransitFx;
 import com.google.gwt.query.client.plugins.effects.PropertiesAnimation;
 import com.google.gwt.query.client.plugins.effects.PropertiesAnimation.EasingCurve;
+import com.google.gwt.query.client.plugins.effects.PropertiesAnimation.FxTarget;
 import com.google.gwt.query.client.plugins.effects.Transform;
 import com.google.gwt.query.client.plugins.effects.Transitions;
 import com.google.gwt.query.client.plugins.effects.TransitionsAnimation;
 import com.google.gwt.query.client.plugins.effects.TransitionsAnimation.TransitionsClipAnimation;
+import com.google.gwt.query.client.plugins.effects.WebAnimation;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.HTML;
 import com.google.gwt.user.client.ui.Label;
@@ -58,6 +62,7 @@ public class GQueryEffectsTestGwt extends GWTTestCase {
   }
 
   public void gwtTearDown() {
+    restorePageVisibility();
     $(e).remove();
     e = null;
   }
@@ -447,6 +452,62 @@ public class GQueryEffectsTestGwt extends GWTTestCase {
     assertTrue(m.attr("style").contains("top: 60px"));
   }
 
+  public void testWebAnimation() {
+    $(e).html("<div id='idtest' style='opacity: 1'>a</div>");
+    final GQuery g = $("#idtest");
+
+    assertTrue(WebAnimation.isCompositorOnly($$("opacity: 0.5, x: 50, rotateZ: 90, delay: 10")));
+    assertFalse(WebAnimation.isCompositorOnly($$("opacity: 0.5, width: 50")));
+
+    // It falls back to transitions when the browser does not support web animations
+    GQAnimation a = new WebAnimation().setEasing(EasingCurve.linear)
+        .setProperties($$("opacity: 0.5, x: 50")).setElement(g.get(0));
+    g.as(Effects).queueAnimation(a, 100);
+
+    delayTestFinish(2000);
+    g.promise().done(new Function() {
+      public void f() {
+        assertEquals(0.5, Double.parseDouble(g.css("opacity")), 0.01);
+        assertEquals("50px", g.as(Transitions.Transitions).css("x"));
+        finishTest();
+      }
+    });
+  }
+
+  // Number of animations of the element, or -1 when the browser can not list them
+  private static native int getAnimationsCount(Element e) /*-{
+    return e.getAnimations ? e.getAnimations().length : -1;
+  }-*/;
+
+  public void testWebAnimationStop() {
+    if (!WebAnimation.isSupported() || getAnimationsCount(e) < 0) {
+      return;
+    }
+    $(e).html("<div id='idtest' style='opacity: 1; transform: rotate(10deg)'>a</div>");
+    final GQuery g = $("#idtest");
+    final String transition = g.as(Transitions.Transitions).css(Transitions.transition);
+
+    GQAnimation a = new WebAnimation().setEasing(EasingCurve.linear)
+        .setProperties($$("opacity: 0.2")).setElement(g.get(0));
+    g.as(Effects).queueAnimation(a, 1000);
+    // one web animation instead of a css transition per property
+    assertEquals(1, getAnimationsCount(g.get(0)));
+
+    delayTestFinish(2000);
+    new Timer() {
+      public void run() {
+        g.stop();
+        assertEquals(0, getAnimationsCount(g.get(0)));
+        // the current opacity is kept, and the properties not animated are not modified
+        double opacity = Double.parseDouble(g.css("opacity"));
+        assertTrue(opacity > 0.2 && opacity < 1);
+        assertEquals("rotate(10deg)", g.get(0).getStyle().getProperty("transform"));
+        assertEquals(transition, g.as(Transitions.Transitions).css(Transitions.transition));
+        finishTest();
+      }
+    }.schedule(300);
+  }
+
   public void testColorEffectParsing(){
     String html = "<div id='test' style='color: #112233'>Test</div>";
     $(e).html(html);
@@ -476,6 +537,54 @@ public class GQueryEffectsTestGwt extends GWTTestCase {
     assertEquals(255, effect.getEndColor()[2]);
   }
 
+  public void testFxTargetsAreShared() {
+    $(e).html("<div style='width: 100px; color: #112233'>a</div><div style='width: 50px'>b</div>");
+    GQuery g = $("div", e);
+
+    FxTarget[] targets = PropertiesAnimation.computeFxTargets($$("width: '+=20px', color: white"));
+    assertEquals(2, targets.length);
+    assertEquals("+=20px", targets[0].value);
+
+    // only start values depend on the element
+    assertEquals("cssprop=width value=+=20px start=100 end=120 unit=px",
+        PropertiesAnimation.computeFxProp(g.get(0), targets[0], false).toString());
+    assertEquals("cssprop=width value=+=20px start=50 end=70 unit=px",
+        PropertiesAnimation.computeFxProp(g.get(1), targets[0], false).toString());
+    ColorFx effect = (ColorFx) PropertiesAnimation.computeFxProp(g.get(0), targets[1], false);
+    assertEquals(17, effect.getStartColor()[0]);
+    assertEquals(255, effect.getEndColor()[0]);
+
+    // the shared end color can not be modified through the effects
+    effect.getEndColor()[0] = 0;
+    assertEquals(255, effect.getEndColor()[0]);
+    effect = (ColorFx) PropertiesAnimation.computeFxProp(g.get(1), targets[1], false);
+    assertEquals(255, effect.getEndColor()[0]);
+  }
+
+  public void testFxSkipsUnchangedValues() {
+    $(e).html("<div style='width: 100px; color: #000000'>a</div>");
+    GQuery g = $("div", e);
+
+    Fx width = PropertiesAnimation.computeFxProp(g.get(0), "width", "200px", false);
+    Fx color = PropertiesAnimation.computeFxProp(g.get(0), "color", "#ff0000", false);
+    width.applyValue(g, 0.5);
+    color.applyValue(g, 0.5);
+    assertEquals("150px", g.get(0).getStyle().getWidth());
+    assertTrue(g.css("color").replace(" ", "").contains("128,0,0"));
+
+    // values which do not change after being quantized are not written again
+    g.css("width", "10px").css("color", "blue");
+    width.applyValue(g, 0.501);
+    color.applyValue(g, 0.501);
+    assertEquals("10px", g.get(0).getStyle().getWidth());
+    assertEquals("blue", g.get(0).getStyle().getColor());
+
+    width.applyValue(g, 1);
+    color.applyValue(g, 1);
+    assertEquals("200px", g.get(0).getStyle().getWidth());
+    assertTrue(g.css("color").replace(" ", "").contains("255,0,0"));
+  }
+
   private void assertPosition(GQuery g, Offset min, Offset max) {
     int a = Math.min(min.top, max.top);
     int b = Math.max(min.top, max.top);
@@ -583,6 +692,247 @@ public class GQueryEffectsTestGwt extends GWTTestCase {
 
   }
 
+  public void testSharedAnimationTicker() {
+    $(e).html("<div>a</div><div>b</div><div>c</div>");
+    final GQuery g = $("div", e);
+    final int duration = 500;
+    final int running = activeAnimations();
+
+    g.as(Effects).animate($$("opacity: 0.5"), duration, EasingCurve.linear);
+    assertEquals(running + 3, activeAnimations());
+
+    delayTestFinish(duration * 3);
+    new Timer() {
+      public void run() {
+        assertEquals(running, activeAnimations());
+        for (Element div : g.elements()) {
+          assertEquals(0.5, Double.parseDouble($(div).css("opacity")), 0.01);
+        }
+        finishTest();
+      }
+    }.schedule(duration * 2);
+  }
+
+  /**
+   * Animation logging when it reads layout and when it modifies its element.
+   */
+  private static class LoggingAnimation extends GQAnimation {
+    private final String name;
+    private final StringBuilder log;
+
+    LoggingAnimation(String name, StringBuilder log, Element element) {
+      this.name = name;
+      this.log = log;
+      setElement(element);
+    }
+
+    @Override
+    protected void beforeUpdate(double progress) {
+      log.append("read-").append(name).append(",");
+    }
+
+    @Override
+    protected void onUpdate(double progress) {
+      log.append("write-").append(name).append(",");
+    }
+  }
+
+  public void testAnimationsReadBeforeWrite() {
+    $(e).html("<div>a</div><div>b</div>");
+    final StringBuilder log = new StringBuilder();
+    final GQAnimation a = new LoggingAnimation("a", log, $("div", e).get(0));
+    final GQAnimation b = new LoggingAnimation("b", log, $("div", e).get(1));
+    a.run(1000);
+    b.run(1000);
+    // animations are updated with their start values when they start
+    assertEquals("write-a,write-b,", log.toString());
+
+    delayTestFinish(2000);
+    new Timer() {
+      public void run() {
+        String frames = log.toString();
+        a.cancel();
+        b.cancel();
+        // in each frame all the animations read before any of them writes
+        assertTrue(frames, frames.matches("write-a,write-b,(read-a,read-b,write-a,write-b,)+"));
+        finishTest();
+      }
+    }.schedule(200);
+  }
+
+  private static native boolean isPageVisibilitySupported() /*-{
+    return $doc.hidden !== undefined && !!$doc.dispatchEvent;
+  }-*/;
+
+  /**
+   * Simulate that the page is hidden or shown, overriding document.hidden.
+   */
+  private static native void setPageHidden(boolean hidden) /*-{
+    Object.defineProperty($doc, "hidden", {configurable: true, get: function() {
+      return hidden;
+    }});
+    var evt = $doc.createEvent("HTMLEvents");
+    evt.initEvent("visibilitychange", false, false);
+    $doc.dispatchEvent(evt);
+  }-*/;
+
+  private static native void restorePageVisibility() /*-{
+    if ($doc.hasOwnProperty("hidden")) {
+      delete $doc.hidden;
+      var evt = $doc.createEvent("HTMLEvents");
+      evt.initEvent("visibilitychange", false, false);
+      $doc.dispatchEvent(evt);
+    }
+  }-*/;
+
+  public void testAnimationsPausedWhilePageHidden() {
+    if (!isPageVisibilitySupported()) {
+      return;
+    }
+    $(e).html("<div style='width: 0px'>a</div>");
+    final GQuery g = $("div", e);
+    final int running = activeAnimations();
+    final int duration = 400;
+
+    g.as(Effects).animate($$("width: 100px"), duration, EasingCurve.linear);
+    assertEquals(running + 1, activeAnimations());
+    setPageHidden(true);
+
+    delayTestFinish(duration * 6);
+    new Timer() {
+      public void run() {
+        // no frames run while the page is hidden, so the animation neither progresses nor ends
+        assertEquals(running + 1, activeAnimations());
+        assertTrue(g.cur("width", true) < 50);
+        setPageHidden(false);
+        new Timer() {
+          public void run() {
+            // start times are shifted on resume, so the time hidden does not count
+            assertEquals(running + 1, activeAnimations());
+            new Timer() {
+              public void run() {
+                assertEquals(running, activeAnimations());
+                assertEquals(100, g.cur("width", true), 1);
+                finishTest();
+              }
+            }.schedule(duration + 200);
+          }
+        }.schedule(duration / 4);
+      }
+    }.schedule(duration + 200);
+  }
+
+  public void testAnimationGroup() {
+    $(e).html("<div>a</div><div>b</div><div>c</div>");
+    final GQuery g = $("div", e);
+    final int running = activeAnimations();
+    final int[] callbacks = new int[1];
+
+    Promise p = g.as(Effects).animateGroup("opacity: 0.2", 100, 50, EasingCurve.linear,
+        new Function() {
+          public void f() {
+            callbacks[0]++;
+          }
+        });
+    // the whole group is driven by one animation
+    assertEquals(running + 1, activeAnimations());
+    // the first element is animating while the last one waits for its delay
+    assertEquals(1, g.eq(0).queue());
+
+    delayTestFinish(2000);
+    p.done(new Function() {
+      public void f() {
+        assertEquals(3, callbacks[0]);
+        for (Element div : g.elements()) {
+          assertEquals(0.2, Double.parseDouble($(div).css("opacity")), 0.01);
+        }
+        assertEquals(0, g.eq(2).queue());
+        finishTest();
+      }
+    });
+  }
+
+  public void testAnimationGroupStopBeforeStart() {
+    $(e).html("<div>a</div><div>b</div><div>c</div>");
+    final GQuery g = $("div", e);
+    final int[] callbacks = new int[1];
+    final String[] state = new String[1];
+
+    // the last element is busy, so as the group waits for it
+    g.eq(2).delay(1000);
+    Function done = new Function() {
+      public void f() {
+        state[0] = "resolved";
+      }
+    };
+    Function fail = new Function() {
+      public void f() {
+        state[0] = "rejected";
+      }
+    };
+    Function callback = new Function() {
+      public void f() {
+        callbacks[0]++;
+      }
+    };
+    g.as(Effects).animateGroup("opacity: 0.2", 100, 50, EasingCurve.linear, callback)
+        .done(done).fail(fail);
+    assertNull(state[0]);
+
+    // jumping to the end completes the group with the final values
+    g.eq(0).stop(false, true);
+    assertEquals("resolved", state[0]);
+    assertEquals(3, callbacks[0]);
+    for (Element div : g.elements()) {
+      assertEquals(0.2, Double.parseDouble($(div).css("opacity")), 0.01);
+    }
+    assertEquals(0, g.eq(0).queue());
+
+    // stopping without jumping to the end rejects it
+    state[0] = null;
+    g.eq(1).css("opacity", "1");
+    g.as(Effects).animateGroup("opacity: 0.2", 100, 50, EasingCurve.linear).done(done).fail(fail);
+    g.eq(1).stop(false, false);
+    assertEquals("rejected", state[0]);
+    assertEquals(1.0, Double.parseDouble(g.eq(1).css("opacity")), 0.01);
+    g.stop(true);
+  }
+
+  public void testAnimationGroupStopWhileRunning() {
+    $(e).html("<div>a</div><div>b</div><div>c</div>");
+    final GQuery g = $("div", e);
+    final int[] callbacks = new int[1];
+    final String[] state = new String[1];
+
+    g.as(Effects).animateGroup("opacity: 0.2", 1000, 50, EasingCurve.linear, new Function() {
+      public void f() {
+        callbacks[0]++;
+      }
+    }).done(new Function() {
+      public void f() {
+        state[0] = "resolved";
+      }
+    }).fail(new Function() {
+      public void f() {
+        state[0] = "rejected";
+      }
+    });
+
+    delayTestFinish(2000);
+    new Timer() {
+      public void run() {
+        assertNull(state[0]);
+        g.eq(1).stop(false, true);
+        assertEquals("resolved", state[0]);
+        assertEquals(3, callbacks[0]);
+        for (Element div : g.elements()) {
+          assertEquals(0.2, Double.parseDouble($(div).css("opacity")), 0.01);
+        }
+        finishTest();
+      }
+    }.schedule(200);
+  }
+
   // This test is used to demonstrate the issue, dont run it normally to avoid
   // problems during the testing phase
   int animationRunCounter = 0;
@@ -625,13 +975,13 @@ public class GQueryEffectsTestGwt extends GWTTestCase {
         // Check that all animations and the delayed function has been run
         assertEquals(loops + 1, animationRunCounter);
 
-        // Check that nothings is left in the dataCache object
-        assertEquals(0, GQuery.dataCache.length());
+        // Check that nothing is left in the data of the animated element
+        assertFalse(GQuery.hasData(getElement()));
 
         // Check that getting queue size does not initialize the data
         // object for this object
         assertEquals(0, $(this).queue());
-        assertEquals(0, GQuery.dataCache.length());
+        assertFalse(GQuery.hasData(getElement()));
 
         // Mark the test as success and stop delay timer
         finishTest();
@@ -30,7 +30,9 @@ import static com.google.gwt.user.client.Event.ONMOUSEOUT;
 import static com.google.gwt.user.client.Event.ONMOUSEOVER;
 import static com.google.gwt.user.client.Event.ONMOUSEUP;
 
+import com.google.gwt.core.client.Duration;
 import com.google.gwt.dom.client.Element;
+import com.google.gwt.dom.client.NativeEvent;
 import com.google.gwt.event.dom.client.ClickEvent;
 import com.google.gwt.event.dom.client.ClickHandler;
 import com.google.gwt.junit.DoNotRunWith;
@@ -39,14 +41,24 @@ import com.google.gwt.junit.client.GWTTestCase;
 import com.google.gwt.query.client.css.CSS;
 import com.google.gwt.query.client.css.Length;
 import com.google.gwt.query.client.css.RGBColor;
+import com.google.gwt.query.client.js.JsUtils;
 import com.google.gwt.query.client.plugins.Events;
+import com.google.gwt.query.client.plugins.MouseOptions;
+import com.google.gwt.query.client.plugins.MousePlugin;
+import com.google.gwt.query.client.plugins.events.EventMetrics;
+import com.google.gwt.query.client.plugins.events.EventMetrics.LongHandler;
 import com.google.gwt.query.client.plugins.events.EventsListener;
+import com.google.gwt.query.client.plugins.events.GqEvent;
+import com.google.gwt.query.client.plugins.events.ListenerOptions;
 import com.google.gwt.user.client.Event;
 import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.Button;
 import com.google.gwt.user.client.ui.HTML;
 import com.google.gwt.user.client.ui.RootPanel;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Test class for testing gwt events plugin api.
  */
@@ -61,6 +73,44 @@ public class GQueryEventsTestGwt extends GWTTestCase {
     }
   }
 
+  /**
+   * Minimal mouse plugin logging the calls to its callbacks.
+   */
+  private static class MouseRecorder extends MousePlugin {
+    private final StringBuilder log = new StringBuilder();
+
+    public MouseRecorder(GQuery gq) {
+      super(gq);
+    }
+
+    public void init(MouseOptions options) {
+      initMouseHandler(options);
+    }
+
+    public void destroy() {
+      destroyMouseHandler();
+    }
+
+    protected String getPluginName() {
+      return "recorder";
+    }
+
+    protected boolean mouseStart(Element element, GqEvent event) {
+      log.append("start(").append(getClientX(event)).append(")");
+      return true;
+    }
+
+    protected boolean mouseDrag(Element element, GqEvent event) {
+      log.append("drag(").append(getClientX(event)).append(")");
+      return true;
+    }
+
+    protected boolean mouseStop(Element element, GqEvent event) {
+      log.append("stop");
+      return true;
+    }
+  }
+
   static Element e = null;
 
   static HTML testPanel = null;
@@ -1894,4 +1944,682 @@ public class GQueryEventsTestGwt extends GWTTestCase {
     assertEquals(2, counter.invokationCounter);
   }
 
+  public void testBindStatelessHandler() {
+    $(e).html("<div id='mainDiv'>blop</div>");
+    final int[] counter = new int[1];
+    EventFunction handler = event -> {
+      counter[0]++;
+      return true;
+    };
+
+    $("#mainDiv", e).onEvent("click", handler);
+    $("#mainDiv", e).click();
+    assertEquals(1, counter[0]);
+
+    // Handlers are removed when passing the same instance
+    $("#mainDiv", e).offEvent("click", handler);
+    $("#mainDiv", e).click();
+    assertEquals(1, counter[0]);
+  }
+
+  public void testHandlersOrderAcrossEventTypes() {
+    $(e).html("<div id='mainDiv'>blop</div>");
+    GQuery div = $("#mainDiv", e);
+    final StringBuilder order = new StringBuilder();
+
+    div.bind(Event.ONCLICK | Event.ONMOUSEDOWN, new Function() {
+      public void f() {
+        order.append("a");
+      }
+    });
+    div.bind("custom.ns1", new Function() {
+      public void f() {
+        order.append("b");
+      }
+    });
+    div.bind("click.ns1", new Function() {
+      public void f() {
+        order.append("c");
+      }
+    });
+    div.bind("mousemove.ns2", new Function() {
+      public void f() {
+        order.append("d");
+      }
+    });
+    div.bind(Event.ONCLICK, new Function() {
+      public void f() {
+        order.append("e");
+      }
+    });
+
+    div.click();
+    assertEquals("ace", order.toString());
+    order.setLength(0);
+    div.trigger("custom");
+    assertEquals("b", order.toString());
+    order.setLength(0);
+    div.trigger("click.ns1");
+    assertEquals("c", order.toString());
+
+    // Unbinding a namespace does not affect other handlers
+    order.setLength(0);
+    div.unbind(".ns1");
+    div.unbind(".unknown");
+    div.click().trigger("custom");
+    assertEquals("ae", order.toString());
+
+    // Removing some bits keeps the handler for the other ones
+    order.setLength(0);
+    div.unbind(Event.ONCLICK);
+    div.click().mousedown();
+    assertEquals("a", order.toString());
+  }
+
+  public void testDelegateCompiledSelectors() {
+    $(e).html("<ul class='rows'><li id='r1' class='row odd'><span class='cell'>x</span></li></ul>");
+    final StringBuilder order = new StringBuilder();
+    String[][] selectors = {
+        {"li", "L"}, {".cell", "C"}, {"#r1", "I"}, {"ul .row", "R"}, {"span, ul", "S"},
+        {"div.nomatch", "X"}, {"li:not(.even)", "N"}};
+    for (final String[] s : selectors) {
+      $(e).delegate(s[0], "click", new Function() {
+        public void f() {
+          order.append(s[1]);
+        }
+      });
+    }
+
+    // Selectors are ordered by the first matching ancestor, then by delegation order
+    $(".cell", e).click();
+    assertEquals("CSSLIRN", order.toString());
+
+    // Matching is not cached between dispatches
+    order.setLength(0);
+    $("#r1", e).addClass("even");
+    $(".cell", e).click();
+    assertEquals("CSSLIR", order.toString());
+
+    order.setLength(0);
+    $(e).undelegate("#r1", "click");
+    $(".cell", e).click();
+    assertEquals("CSSLR", order.toString());
+
+    $(e).undelegate();
+  }
+
+  public void testDelegatedBinding() {
+    $(e).html("<div id='c0' class='cell'><span>0</span></div><div id='c1' class='cell'>1</div>"
+        + "<div id='c2' class='cell'>2</div>");
+    final StringBuilder ids = new StringBuilder();
+    Function handler = new Function() {
+      public void f(Element el) {
+        ids.append(el.getId());
+      }
+    };
+
+    GQuery cells = $(".cell", e);
+    cells.as(Events.Events).delegated(e).bind("click", null, handler);
+    cells.as(Events.Events).delegated(e).one(ONMOUSEDOWN, null, new Function() {
+      public void f(Element el) {
+        ids.append("m").append(el.getId());
+      }
+    });
+    // there is only one listener in the container
+    assertFalse(EventsListener.hasListener(cells.get(0)));
+    assertEquals(2, EventsListener.liveBindFunctionsCount(e));
+
+    $("span", e).click();
+    cells.eq(2).click();
+    assertEquals("c0c2", ids.toString());
+
+    // handlers bound with one() run once per element
+    ids.setLength(0);
+    cells.eq(0).mousedown().mousedown();
+    cells.eq(1).mousedown();
+    assertEquals("mc0mc1", ids.toString());
+
+    // unbinding a subset keeps the handlers of the other elements
+    ids.setLength(0);
+    cells.eq(1).as(Events.Events).delegated(e).unbind("click", handler);
+    cells.click();
+    assertEquals("c0c2", ids.toString());
+
+    ids.setLength(0);
+    cells.as(Events.Events).delegated(e).off();
+    cells.click().mousedown();
+    assertEquals("", ids.toString());
+    assertEquals(0, EventsListener.liveHandlersCount(e));
+  }
+
+  public void testDelegatedBindingSets() {
+    $(e).html("<div id='c0' class='cell'>0</div><div id='c1' class='cell'>1</div>"
+        + "<div id='c2' class='cell'>2</div>");
+    final StringBuilder ids = new StringBuilder();
+    Function handler = new Function() {
+      public void f(Element el) {
+        ids.append(el.getId());
+      }
+    };
+
+    // elements bound one by one with the same handler share one set in the container
+    GQuery cells = $(".cell", e);
+    for (Element cell : cells.elements()) {
+      $(cell).as(Events.Events).delegated(e).bind("click", null, handler);
+    }
+    assertEquals(1, EventsListener.liveHandlersCount(e));
+    // nothing is stored in the data of the elements
+    assertFalse(GQuery.hasData(cells.get(0)));
+    cells.click();
+    assertEquals("c0c1c2", ids.toString());
+
+    // other handlers get their own set
+    $("#c1", e).as(Events.Events).delegated(e).bind("click.other", null, handler);
+    assertEquals(2, EventsListener.liveHandlersCount(e));
+    $("#c1", e).as(Events.Events).delegated(e).unbind(".other");
+    assertEquals(1, EventsListener.liveHandlersCount(e));
+
+    // the membership is kept in the set, and removed elements are dropped from it
+    assertEquals(1, EventsListener.elementSetMemberships(cells.get(0)));
+    assertEquals(3, EventsListener.elementSetsSize(e));
+    Element removed = cells.get(0);
+    $(removed).remove();
+    assertEquals(0, EventsListener.elementSetMemberships(removed));
+    assertEquals(2, EventsListener.elementSetsSize(e));
+    ids.setLength(0);
+    cells.click();
+    assertEquals("c1c2", ids.toString());
+
+    // the set is unregistered when all its elements are removed
+    Element last = cells.get(2);
+    $(e).empty();
+    assertEquals(0, EventsListener.liveHandlersCount(e));
+    assertEquals(0, EventsListener.elementSetMemberships(last));
+  }
+
+  public void testListenerOptions() {
+    $(e).html("<div id='p'><div id='c'></div></div>");
+    final StringBuilder order = new StringBuilder();
+    $("#c", e).bind("click", null, new Function() {
+      public void f() {
+        order.append("c");
+      }
+    });
+    $("#p", e).as(Events.Events).withOptions(new ListenerOptions().setCapture(true))
+        .bind("click", null, new Function() {
+          public void f() {
+            order.append("p");
+          }
+        });
+    $("#c", e).click();
+    assertEquals("pc", order.toString());
+
+    order.setLength(0);
+    $("#c", e).as(Events.Events).withOptions(new ListenerOptions().setOnce(true))
+        .bind("custom", null, new Function() {
+          public void f() {
+            order.append("o");
+          }
+        });
+    $("#c", e).trigger("custom").trigger("custom");
+    assertEquals("o", order.toString());
+
+    // Non passive listeners can prevent the default action of scroll-blocking events
+    $("#c", e).as(Events.Events).withOptions(new ListenerOptions().setPassive(false))
+        .bind("wheel", null, new Function() {
+          public boolean f(Event ev) {
+            return false;
+          }
+        });
+    NativeEvent evt = document.createHtmlEvent("wheel", true, true);
+    $("#c", e).get(0).dispatchEvent(evt);
+    assertTrue(JsUtils.isDefaultPrevented(evt));
+  }
+
+  public void testRateLimitedHandlers() {
+    $(e).html("<div id='rl'></div>");
+    final GQuery g = $("#rl", e);
+    final StringBuilder calls = new StringBuilder();
+    Function throttled = new Function() {
+      public void f() {
+        calls.append("t");
+      }
+    };
+    g.bind("click.rl", null, Events.throttle(1000, throttled));
+    g.bind("custom.rl", null, Events.debounce(50, new Function() {
+      public void f() {
+        calls.append("d").append((Object) getArgument(0));
+      }
+    }));
+
+    g.click().click().click();
+    g.trigger("custom", 1).trigger("custom", 2).trigger("custom", 3);
+    assertEquals("t", calls.toString());
+
+    // unbinding the original handler removes the wrapper and its pending call
+    g.unbind("click", throttled);
+
+    delayTestFinish(2000);
+    new Timer() {
+      public void run() {
+        assertEquals("td3", calls.toString());
+        g.unbind(".rl");
+        assertEquals(0, EventsListener.handlersCount(g.get(0)));
+        finishTest();
+      }
+    }.schedule(1200);
+  }
+
+  public void testRateLimitedHandlersPerElement() {
+    $(e).html("<div id='r1' class='row'></div><div id='r2' class='row'></div>");
+    final GQuery rows = $(".row", e);
+    final StringBuilder calls = new StringBuilder();
+
+    // the rate is limited per element, so row 2 is not throttled because row 1 fired
+    rows.bind("click", null, Events.throttle(1000, new Function() {
+      public void f(Element el) {
+        calls.append("t").append(el.getId());
+      }
+    }));
+    rows.eq(0).click().click();
+    rows.eq(1).click();
+    assertEquals("tr1tr2", calls.toString());
+    rows.unbind("click");
+
+    // unbinding the wrapper from one element only cancels the pending call of that element
+    calls.setLength(0);
+    rows.bind("custom", null, Events.debounce(50, new Function() {
+      public void f(Element el) {
+        calls.append("d").append(el.getId());
+      }
+    }));
+    rows.trigger("custom");
+    rows.eq(1).unbind("custom");
+    assertEquals("", calls.toString());
+
+    delayTestFinish(2000);
+    new Timer() {
+      public void run() {
+        assertEquals("dr1", calls.toString());
+        rows.unbind("custom");
+        finishTest();
+      }
+    }.schedule(200);
+  }
+
+  public void testDispatchArguments() {
+    $(e).html("<div id='d1' class='a b a'><span class='b'>x</span></div>");
+    final List<Object[]> args = new ArrayList<>();
+    Object[] data = {"data", 1};
+    $("#d1", e).bind("click", data, new Function() {
+      public void f() {
+        args.add(arguments);
+      }
+    });
+    $("#d1", e).click().click();
+    assertEquals(2, args.size());
+    for (Object[] a : args) {
+      assertEquals(2, a.length);
+      assertEquals("data", a[0]);
+      assertEquals(1, a[1]);
+    }
+    // handlers do not get the array passed when binding
+    assertNotSame(data, args.get(0));
+
+    // Nested dispatches in the same container do not share buffers
+    final StringBuilder order = new StringBuilder();
+    $(e).delegate(".a", "click", new Function() {
+      public void f() {
+        order.append("a");
+      }
+    });
+    $(e).delegate(".b", "click", new Function() {
+      public void f() {
+        order.append("b");
+        if (order.length() < 3) {
+          $("#d1", e).trigger("custom");
+        }
+      }
+    });
+    $(e).delegate(".a", "custom", new Function() {
+      public void f() {
+        order.append("c");
+      }
+    });
+    $("span", e).click();
+    assertEquals("bcba", order.toString());
+    order.setLength(0);
+    $("span", e).click();
+    assertEquals("bcba", order.toString());
+  }
+
+  public void testEventMetrics() {
+    $(e).html("<div id='m1'><span class='slow'>x</span></div>");
+    EventMetrics.reset();
+    EventMetrics.enable(5);
+    try {
+      $("#m1", e).bind("click.fast", null, new Function() {
+        public void f() {
+        }
+      });
+      $(e).delegate(".slow", "click.slow", new Function() {
+        public void f() {
+          double start = Duration.currentTimeMillis();
+          while (Duration.currentTimeMillis() - start < 10) {
+            // busy
+          }
+        }
+      });
+      $("span", e).click();
+
+      EventMetrics.Histogram click = EventMetrics.byEventType().get("click");
+      assertEquals(2, click.getCount());
+      assertTrue(click.getDispatches() >= 2);
+      assertTrue(click.getMax() >= 10);
+      assertEquals(1, EventMetrics.byNamespace().get("fast").getCount());
+      assertEquals(1, EventMetrics.byNamespace().get("slow").getCount());
+
+      assertEquals(1, EventMetrics.longHandlers().size());
+      LongHandler slow = EventMetrics.longHandlers().get(0);
+      assertEquals("slow", slow.namespace);
+      assertEquals("span.slow matching delegated '.slow'", slow.source);
+    } finally {
+      EventMetrics.disable();
+      EventMetrics.reset();
+    }
+
+    $("span", e).click();
+    assertTrue(EventMetrics.byEventType().isEmpty());
+  }
+
+  public void testEventMetricsOnSvgElements() {
+    Element svg = createSvgElement("svg");
+    Element rect = createSvgElement("rect");
+    rect.setAttribute("class", "box  big");
+    svg.appendChild(rect);
+    e.appendChild(svg);
+    EventMetrics.reset();
+    EventMetrics.enable(5);
+    try {
+      $(rect).bind("click", null, new Function() {
+        public void f() {
+          double start = Duration.currentTimeMillis();
+          while (Duration.currentTimeMillis() - start < 10) {
+            // busy
+          }
+        }
+      });
+      $(rect).click();
+
+      assertEquals(1, EventMetrics.longHandlers().size());
+      assertEquals("rect.box.big", EventMetrics.longHandlers().get(0).source);
+    } finally {
+      EventMetrics.disable();
+      EventMetrics.reset();
+    }
+  }
+
+  private static native Element createSvgElement(String tag) /*-{
+    return $doc.createElementNS("http://www.w3.org/2000/svg", tag);
+  }-*/;
+
+  public void testTriggerHandlers() {
+    $(e).html("<div class='w' id='w1'></div><div class='w' id='w2'></div><div class='w'></div>");
+    final StringBuilder log = new StringBuilder();
+    $(".w", e).bind("refresh", null, new Function() {
+      public void f() {
+        log.append(getElement().getId()).append(getArgument(0)).append(",");
+      }
+    });
+    $("#w2", e).bind("refresh.ns", null, new Function() {
+      public boolean f(Event ev) {
+        log.append("ns,");
+        return false;
+      }
+    });
+    $(e).bind("refresh", null, new Function() {
+      public void f() {
+        log.append("parent,");
+      }
+    });
+
+    $(".w", e).as(Events.Events).triggerHandlers("refresh", new Object[]{"!"}, new Function() {
+      public void f(Element el) {
+        log.append("done-").append(el.getId()).append(",");
+      }
+    });
+    // handlers run without bubbling, and the second handler in w2 cancels the callback
+    assertEquals("w1!,done-w1,w2!,ns,!,done-,", log.toString());
+
+    log.setLength(0);
+    $(".w", e).as(Events.Events).triggerHandlers("refresh.ns");
+    assertEquals("ns,", log.toString());
+    assertNull($("#w1", e).data(EventsListener.EVENT_DATA));
+  }
+
+  private static native void stopImmediatePropagation(Event evt) /*-{
+    evt.stopImmediatePropagation();
+  }-*/;
+
+  public void testTriggerHandlersEvents() {
+    $(e).html("<div class='w' id='w1'></div><div class='w' id='w2'></div>");
+    final StringBuilder log = new StringBuilder();
+    final List<Event> events = new ArrayList<Event>();
+    $(".w", e).bind("refresh", null, new Function() {
+      public boolean f(Event ev) {
+        events.add(ev);
+        log.append(getElement().getId()).append(",");
+        if ("w1".equals(getElement().getId())) {
+          stopImmediatePropagation(ev);
+        }
+        return true;
+      }
+    });
+    $(".w", e).bind("refresh", null, new Function() {
+      public void f() {
+        log.append("second-").append(getElement().getId()).append(",");
+      }
+    });
+    // delegated handlers are not run, since the event does not bubble
+    $(e).delegate(".w", "refresh", new Function() {
+      public void f() {
+        log.append("delegated,");
+      }
+    });
+
+    $(".w", e).as(Events.Events).triggerHandlers("refresh");
+    assertEquals("w1,w2,second-w2,", log.toString());
+    // each element receives its own event
+    assertEquals(2, events.size());
+    assertNotSame(events.get(0), events.get(1));
+    assertEquals($("#w1", e).get(0), events.get(0).getCurrentEventTarget());
+    assertEquals($("#w2", e).get(0), events.get(1).getCurrentEventTarget());
+
+    // a browser dispatch runs the delegated handler
+    log.setLength(0);
+    $("#w2", e).trigger("refresh");
+    assertEquals("w2,second-w2,delegated,", log.toString());
+  }
+
+  public void testSharedHandlers() {
+    $(e).html("<p id='s1'>1</p><p id='s2'>2</p><p id='s3'>3</p>");
+    final StringBuilder log = new StringBuilder();
+    Function f = new Function() {
+      public void f() {
+        log.append(getElement().getId()).append(getArgument(0));
+      }
+    };
+    $("p", e).as(Events.Events).sharedHandlers().bind("click.sh mouseup.sh", "-", f);
+    $("p", e).click();
+    assertEquals("s1-s2-s3-", log.toString());
+    assertEquals(2, EventsListener.handlersCount($("#s1", e).get(0)));
+
+    // unbinding from one element does not affect the others
+    $("#s1", e).unbind("click", f);
+    $("#s2", e).unbind(".sh");
+    log.setLength(0);
+    $("p", e).click();
+    assertEquals("s3-", log.toString());
+    log.setLength(0);
+    $("p", e).trigger(Event.ONMOUSEUP);
+    assertEquals("s1-s3-", log.toString());
+    assertEquals(1, EventsListener.handlersCount($("#s1", e).get(0)));
+    assertEquals(0, EventsListener.handlersCount($("#s2", e).get(0)));
+  }
+
+  @DoNotRunWith({Platform.HtmlUnitLayout, Platform.HtmlUnitUnknown})
+  public void testObserverSpecialEvents() {
+    $(e).html("<div id='ro' style='width: 100px; height: 20px'></div>");
+    final GQuery g = $("#ro", e);
+    final StringBuilder log = new StringBuilder();
+    g.bind("resize.ob", null, new Function() {
+      public void f() {
+        log.append("resize").append(getArgument(0) != null).append(",");
+      }
+    });
+    g.bind("enterviewport.ob", null, new Function() {
+      public void f() {
+        log.append("enter,");
+      }
+    });
+    // window resize handlers are not run by element resizes
+    $(GQuery.window).bind("resize.ob", null, new Function() {
+      public void f() {
+        log.append("window,");
+      }
+    });
+
+    delayTestFinish(3000);
+    new Timer() {
+      public void run() {
+        assertEquals("enter,", log.toString());
+        g.css("width", "200px");
+        new Timer() {
+          public void run() {
+            assertEquals("enter,resizetrue,", log.toString());
+            g.unbind(".ob");
+            $(GQuery.window).unbind(".ob");
+            assertFalse(EventsListener.getInstance(g.get(0)).hasHandlers(-1, "resize"));
+            finishTest();
+          }
+        }.schedule(300);
+      }
+    }.schedule(300);
+  }
+
+  public void testLazyBind() {
+    $(e).html("<p class='lz' id='l1'><b>1</b></p><p class='lz' id='l2'>2</p>");
+    final StringBuilder log = new StringBuilder();
+    $(e).as(Events.Events).lazyBind(".lz", "click custom", "!", new Function() {
+      public void f() {
+        log.append(getElement().getId()).append(getArgument(0)).append(",");
+      }
+    });
+    assertFalse(EventsListener.hasListener($("#l1", e).get(0)));
+
+    $("#l1 b", e).click();
+    assertEquals("l1!,", log.toString());
+    assertEquals(2, EventsListener.handlersCount($("#l1", e).get(0)));
+    assertFalse(EventsListener.hasListener($("#l2", e).get(0)));
+
+    // bound handlers run once per event
+    log.setLength(0);
+    $("#l1", e).click().trigger("custom");
+    assertEquals("l1!,l1!,", log.toString());
+
+    $(e).undelegate();
+    log.setLength(0);
+    $(".lz", e).click();
+    assertEquals("l1!,", log.toString());
+  }
+
+  private static NativeEvent mouseEvent(String type, int clientX) {
+    return document.createMouseEvent(type, true, true, 0, 0, 0, clientX, 10, false, false, false,
+        false, NativeEvent.BUTTON_LEFT, null);
+  }
+
+  private static NativeEvent pointerEvent(String type, int pointerId, int clientX) {
+    NativeEvent evt = mouseEvent(type, clientX);
+    JsUtils.prop(evt, "pointerId", pointerId);
+    return evt;
+  }
+
+  private static native boolean pointerEventsSupported() /*-{
+    return !!$wnd.PointerEvent;
+  }-*/;
+
+  public void testMousePluginCoalescedDrag() {
+    $(e).html("<div id='drag' style='width: 100px; height: 100px'></div>");
+    final Element el = $("#drag", e).get(0);
+    final MouseRecorder plugin = new MouseRecorder($(el));
+    MouseOptions options = new MouseOptions();
+    options.setDelay(0);
+    options.setDistance(0);
+    options.setCoalesceDrag(true);
+    plugin.init(options);
+
+    el.dispatchEvent(mouseEvent("mousedown", 10));
+    el.dispatchEvent(mouseEvent("mousemove", 20));
+    el.dispatchEvent(mouseEvent("mousemove", 30));
+    el.dispatchEvent(mouseEvent("mousemove", 40));
+    // drags wait for the next frame
+    assertEquals("start(10)", plugin.log.toString());
+
+    delayTestFinish(2000);
+    new Timer() {
+      public void run() {
+        // one drag per frame with the latest coordinates
+        assertEquals("start(10)drag(40)", plugin.log.toString());
+
+        // mouseup runs the pending drag before stopping
+        el.dispatchEvent(mouseEvent("mousemove", 50));
+        el.dispatchEvent(mouseEvent("mousemove", 60));
+        el.dispatchEvent(mouseEvent("mouseup", 60));
+        assertEquals("start(10)drag(40)drag(60)stop", plugin.log.toString());
+
+        // nothing is run after the plugin stopped
+        new Timer() {
+          public void run() {
+            assertEquals("start(10)drag(40)drag(60)stop", plugin.log.toString());
+            plugin.destroy();
+            finishTest();
+          }
+        }.schedule(100);
+      }
+    }.schedule(100);
+  }
+
+  public void testMousePluginPointerEvents() {
+    $(e).html("<div id='drag' style='width: 100px; height: 100px'></div>");
+    Element el = $("#drag", e).get(0);
+    el.getStyle().setProperty("touchAction", "pan-y");
+    String touchAction = el.getStyle().getProperty("touchAction");
+    MouseRecorder plugin = new MouseRecorder($(el));
+    MouseOptions options = new MouseOptions();
+    options.setDelay(0);
+    options.setDistance(0);
+    options.setPointerEvents(true);
+    plugin.init(options);
+
+    if (!pointerEventsSupported()) {
+      // mouse events are used, and the style is not modified
+      assertEquals(touchAction, el.getStyle().getProperty("touchAction"));
+      plugin.destroy();
+      return;
+    }
+    assertEquals("none", el.getStyle().getProperty("touchAction"));
+
+    el.dispatchEvent(pointerEvent("pointerdown", 1, 10));
+    // events of other pointers are ignored
+    el.dispatchEvent(pointerEvent("pointermove", 2, 90));
+    el.dispatchEvent(pointerEvent("pointermove", 1, 20));
+    el.dispatchEvent(pointerEvent("pointerup", 2, 90));
+    assertEquals("start(10)drag(20)", plugin.log.toString());
+
+    el.dispatchEvent(pointerEvent("pointerup", 1, 20));
+    assertEquals("start(10)drag(20)stop", plugin.log.toString());
+
+    plugin.destroy();
+    assertEquals(touchAction, el.getStyle().getProperty("touchAction"));
+  }
 }
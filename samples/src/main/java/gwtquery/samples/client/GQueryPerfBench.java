@@ -0,0 +1,283 @@
+/*
+ * Copyright 2026, The gwtquery team.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package gwtquery.samples.client;
+
+import static com.google.gwt.query.client.GQuery.$;
+import static com.google.gwt.query.client.plugins.Events.Events;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.EntryPoint;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.dom.client.Element;
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.dom.client.ClickHandler;
+import com.google.gwt.query.client.Function;
+import com.google.gwt.query.client.GQuery;
+import com.google.gwt.query.client.Predicate;
+import com.google.gwt.query.client.css.RGBColor;
+import com.google.gwt.query.client.plugins.effects.Fx;
+import com.google.gwt.query.client.plugins.effects.Fx.ColorFx;
+import com.google.gwt.query.client.plugins.effects.PropertiesAnimation;
+import com.google.gwt.user.client.ui.Button;
+import com.google.gwt.user.client.ui.Label;
+import com.google.gwt.user.client.ui.RootPanel;
+
+/**
+ * Micro benchmarks of gquery hot paths, run them in compiled mode to get meaningful numbers.
+ */
+public class GQueryPerfBench implements EntryPoint {
+
+  public static final int MAX_ITEMS = GWT.isScript() ? 10000 : 100;
+  public static final int ROUNDS = GWT.isScript() ? 50 : 2;
+  public static final int FRAMES = 60;
+
+  private GQuery items;
+
+  public void onModuleLoad() {
+    Button b = new Button("run test");
+    b.addClickHandler(new ClickHandler() {
+      public void onClick(ClickEvent event) {
+        $(".gwt-label").remove();
+        setUp();
+        testFunctionVsLambda();
+        testPluginViews();
+        testBoxedVsUnboxedData();
+        testEagerVsLazyBinding();
+        testAnimationFrames();
+      }
+    });
+    RootPanel.get().add(b);
+  }
+
+  private void setUp() {
+    if (items == null) {
+      StringBuilder html = new StringBuilder();
+      for (int i = 0; i < MAX_ITEMS; i++) {
+        html.append("<div class='item'>").append(i).append("</div>");
+      }
+      items = $("<div id='bench' style='display:none'>" + html + "</div>").appendTo($("body"))
+          .children();
+    }
+  }
+
+  public void testFunctionVsLambda() {
+    log("-------------");
+    log("each/map/filter over " + MAX_ITEMS + " elements, " + ROUNDS + " rounds");
+    final int[] count = new int[1];
+
+    time("each(Function)", () -> items.each(new Function() {
+      public void f(Element e) {
+        count[0]++;
+      }
+    }));
+    time("eachElement(EachFunction)", () -> items.eachElement((e, i) -> count[0]++));
+
+    time("map(Function)", () -> items.<String> map(new Function() {
+      public Object f(Element e, int i) {
+        return e.getInnerText();
+      }
+    }));
+    time("mapElements(MapFunction)", () -> items.<String> mapElements((e, i) -> e.getInnerText()));
+
+    time("filter(Predicate)", () -> items.filter(new Predicate() {
+      public boolean f(Element e, int index) {
+        return index % 2 == 0;
+      }
+    }));
+    time("filter(FilterFunction)", () -> items.filter((e, i) -> i % 2 == 0));
+    log("-------------");
+  }
+
+  public void testPluginViews() {
+    log("-------------");
+    log("as(Events) " + MAX_ITEMS + " times, " + ROUNDS
+        + " rounds, time and heap growth (chrome only)");
+    final Object[] view = new Object[1];
+
+    // views are cached in the GQuery, so converting the same object again allocates nothing
+    allocations("items.as(Events)", () -> {
+      for (int i = 0; i < MAX_ITEMS; i++) {
+        view[0] = items.as(Events);
+      }
+    });
+    // a new GQuery per element, it allocates the GQuery and one plugin view per call
+    allocations("$(e).as(Events)", () -> {
+      for (Element e : items.elements()) {
+        view[0] = $(e).as(Events);
+      }
+    });
+    log("-------------");
+  }
+
+  public void testBoxedVsUnboxedData() {
+    log("-------------");
+    log("data counters over " + MAX_ITEMS + " elements, " + ROUNDS
+        + " rounds, time and heap growth (chrome only)");
+
+    // each round updates every element once, like an animation frame storing its state, so the
+    // heap growth per round is the garbage left per frame. Numbers are always read back as Double
+    // from the data store
+    allocations("data(Element, String, Double) counter", () -> {
+      for (Element e : items.elements()) {
+        Double n = GQuery.data(e, "boxed");
+        GQuery.data(e, "boxed", n == null ? 1d : n + 1);
+      }
+    });
+    allocations("dataInt(Element, String, int)", () -> {
+      for (Element e : items.elements()) {
+        GQuery.dataInt(e, "unboxed", GQuery.dataInt(e, "unboxed") + 1);
+      }
+    });
+
+    allocations("data(Element, String, Double)", () -> {
+      for (Element e : items.elements()) {
+        Double d = GQuery.data(e, "boxedPos");
+        GQuery.data(e, "boxedPos", d == null ? 0.5 : d + 0.5);
+      }
+    });
+    allocations("dataDouble(Element, String, double)", () -> {
+      for (Element e : items.elements()) {
+        GQuery.dataDouble(e, "unboxedPos", GQuery.dataDouble(e, "unboxedPos") + 0.5);
+      }
+    });
+    items.removeData("boxed").removeData("unboxed").removeData("boxedPos")
+        .removeData("unboxedPos");
+    log("-------------");
+  }
+
+  public void testEagerVsLazyBinding() {
+    log("-------------");
+    log("binding a click handler to " + MAX_ITEMS + " elements, time and approximate memory");
+    final int[] count = new int[1];
+    Function handler = new Function() {
+      public void f() {
+        count[0]++;
+      }
+    };
+    GQuery bench = $("#bench");
+
+    // lazy first, so as listeners left by the eager binding are not counted
+    int before = bench.memoryReport().approxBytes();
+    double millis = Duration.currentTimeMillis();
+    bench.as(Events).lazyBind(".item", "click", null, handler);
+    millis = Duration.currentTimeMillis() - millis;
+    logBinding("lazyBind(selector)", millis, bench.memoryReport().approxBytes() - before);
+    millis = Duration.currentTimeMillis();
+    items.eq(0).click();
+    millis = Duration.currentTimeMillis() - millis;
+    logBinding("lazyBind first interaction", millis,
+        bench.memoryReport().approxBytes() - before);
+    bench.as(Events).undelegate();
+    items.eq(0).off();
+
+    before = bench.memoryReport().approxBytes();
+    millis = Duration.currentTimeMillis();
+    items.bind("click", null, handler);
+    millis = Duration.currentTimeMillis() - millis;
+    logBinding("bind()", millis, bench.memoryReport().approxBytes() - before);
+    items.off();
+    log("-------------");
+  }
+
+  public void testAnimationFrames() {
+    log("-------------");
+    log("animating width and color of " + MAX_ITEMS + " elements, " + FRAMES
+        + " frames, time and heap growth (chrome only)");
+    final Element[] elems = items.elements();
+    final GQuery[] gs = new GQuery[elems.length];
+    final Fx[] widths = new Fx[elems.length];
+    final Fx[] colors = new Fx[elems.length];
+    // colors are returned as copies, so they are read before measuring
+    final int[][] fromColors = new int[elems.length][];
+    final int[][] toColors = new int[elems.length][];
+    for (int i = 0; i < elems.length; i++) {
+      gs[i] = $(elems[i]);
+      widths[i] = PropertiesAnimation.computeFxProp(elems[i], "width", "+=50px", false);
+      colors[i] = PropertiesAnimation.computeFxProp(elems[i], "color", "#ff8000", false);
+      fromColors[i] = ((ColorFx) colors[i]).getStartColor();
+      toColors[i] = ((ColorFx) colors[i]).getEndColor();
+    }
+
+    frames("css() with concatenated values", (i, progress) -> {
+      double w = widths[i].start + (widths[i].end - widths[i].start) * progress;
+      gs[i].css("width", ((int) w) + "px");
+      int[] from = fromColors[i], to = toColors[i];
+      gs[i].css("color", RGBColor.rgb(
+          (int) Math.round(from[0] + progress * (to[0] - from[0])),
+          (int) Math.round(from[1] + progress * (to[1] - from[1])),
+          (int) Math.round(from[2] + progress * (to[2] - from[2]))).getCssName());
+    });
+    frames("Fx.applyValue()", (i, progress) -> {
+      widths[i].applyValue(gs[i], progress);
+      colors[i].applyValue(gs[i], progress);
+    });
+    items.css("width", "").css("color", "");
+    log("-------------");
+  }
+
+  private interface FrameStep {
+    void apply(int element, double progress);
+  }
+
+  private void frames(String name, FrameStep step) {
+    double heap = usedHeap();
+    double millis = Duration.currentTimeMillis();
+    for (int f = 1; f <= FRAMES; f++) {
+      double progress = (double) f / FRAMES;
+      for (int i = 0; i < MAX_ITEMS; i++) {
+        step.apply(i, progress);
+      }
+    }
+    millis = Duration.currentTimeMillis() - millis;
+    log(name + " : " + millis + " ms., ~" + (usedHeap() - heap) / FRAMES + " bytes per frame");
+  }
+
+  private void allocations(String name, Runnable bench) {
+    // warm up
+    bench.run();
+    double heap = usedHeap();
+    double millis = Duration.currentTimeMillis();
+    for (int i = 0; i < ROUNDS; i++) {
+      bench.run();
+    }
+    millis = Duration.currentTimeMillis() - millis;
+    log(name + " : " + millis + " ms., ~" + (usedHeap() - heap) / ROUNDS + " bytes per round");
+  }
+
+  private static native double usedHeap() /*-{
+    return $wnd.performance && $wnd.performance.memory
+        ? $wnd.performance.memory.usedJSHeapSize : 0;
+  }-*/;
+
+  private void logBinding(String name, double millis, int bytes) {
+    log(name + " : " + millis + " ms., ~" + bytes + " bytes");
+  }
+
+  private void time(String name, Runnable bench) {
+    // warm up
+    bench.run();
+    double ellapsedTime = Duration.currentTimeMillis();
+    for (int i = 0; i < ROUNDS; i++) {
+      bench.run();
+    }
+    ellapsedTime = Duration.currentTimeMillis() - ellapsedTime;
+    log(name + " : " + ellapsedTime + " ms.");
+  }
+
+  public void log(String msg) {
+    RootPanel.get().add(new Label(msg));
+  }
+}